@@ -2,11 +2,12 @@ import request from './request'
 
 // 账户管理相关API
 
-// 获取所有账户
-export function getAllAccounts() {
+// 分页获取账户列表，params: { page, size, role, username, sort }
+export function getAllAccounts(params) {
   return request({
     url: '/account/list',
-    method: 'get'
+    method: 'get',
+    params
   })
 }
 
@@ -10,6 +10,24 @@ export function getAllCourses() {
   })
 }
 
+// 获取所有课程的名额占用情况
+export function getCourseSeats() {
+  return request({
+    url: '/course/seats',
+    method: 'get'
+  })
+}
+
+// 订阅课程名额和课程信息变化（SSE），返回的 EventSource 需在页面卸载时 close()
+// handlers: { ready(data), seats(list), catalog(data) }，断线后浏览器会自动重连并再次收到 ready
+export function subscribeCourseEvents(handlers) {
+  const source = new EventSource(`${process.env.VUE_APP_API_BASE_URL || ''}/course/events`)
+  Object.entries(handlers).forEach(([name, handler]) => {
+    source.addEventListener(name, event => handler(JSON.parse(event.data)))
+  })
+  return source
+}
+
 // 根据ID获取课程
 export function getCourseById(id) {
   return request({
@@ -27,10 +45,11 @@ export function saveCourse(course) {
   })
 }
 
-// 删除课程
-export function deleteCourse(id) {
+// 删除课程（force 为 true 时连同选课记录一并删除）
+export function deleteCourse(id, force = false) {
   return request({
     url: `/course/${id}`,
-    method: 'delete'
+    method: 'delete',
+    params: { force }
   })
 }
\ No newline at end of file
@@ -34,6 +34,30 @@ export function dropCourse(studentId, courseId) {
   })
 }
 
+// 批量选课，返回每门课程的处理结果
+export function selectCourses(studentId, courseIds) {
+  return request({
+    url: '/student-course/select/batch',
+    method: 'post',
+    params: {
+      studentId
+    },
+    data: courseIds
+  })
+}
+
+// 批量退课，返回每门课程的处理结果
+export function dropCourses(studentId, courseIds) {
+  return request({
+    url: '/student-course/drop/batch',
+    method: 'delete',
+    params: {
+      studentId
+    },
+    data: courseIds
+  })
+}
+
 // 获取学生已选课程总学分
 export function getTotalCredits(studentId) {
   return request({
@@ -42,11 +66,15 @@ export function getTotalCredits(studentId) {
   })
 }
 
-// 获取所有选课信息
-export function getAllEnrollments() {
+// 按游标分页获取选课信息（afterId 为上一页最后一条记录的ID）
+export function getAllEnrollments(afterId = 0, size = 500) {
   return request({
     url: '/enrollment/all',
-    method: 'get'
+    method: 'get',
+    params: {
+      afterId,
+      size
+    }
   })
 }
 
@@ -58,11 +86,15 @@ export function getEnrollmentsByStudentId(studentId) {
   })
 }
 
-// 根据课程ID获取选课信息
-export function getEnrollmentsByCourseId(courseId) {
+// 根据课程ID分页获取选课信息，总数在响应头 X-Total-Count 中
+export function getEnrollmentsByCourseId(courseId, page = 0, size = 200) {
   return request({
     url: `/enrollment/course/${courseId}`,
-    method: 'get'
+    method: 'get',
+    params: {
+      page,
+      size
+    }
   })
 }
 
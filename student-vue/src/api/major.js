@@ -27,10 +27,11 @@ export function saveMajor(major) {
   })
 }
 
-// 删除专业
-export function deleteMajor(id) {
+// 删除专业（force 为 true 时连同该专业的学生、账号和选课记录一并删除）
+export function deleteMajor(id, force = false) {
   return request({
     url: `/major/${id}`,
-    method: 'delete'
+    method: 'delete',
+    params: { force }
   })
 }
\ No newline at end of file
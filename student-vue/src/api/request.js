@@ -78,6 +78,8 @@ request.interceptors.response.use(
         // 请求成功
         if (data.code === 200) {
           console.log('请求成功，返回数据:', data);
+          // 分页接口通过响应头返回总数（X-Total-Count）和下一页游标（X-Next-Cursor）
+          data.headers = response.headers;
           return data;
         }
         
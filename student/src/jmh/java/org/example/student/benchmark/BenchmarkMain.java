@@ -0,0 +1,30 @@
+package org.example.student.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * JMH 入口：未指定 -rf 时把结果以 JSON 格式写入 jmh.result（默认 target/jmh/jmh-result-版本号.json），
+ * 每个版本保留一份结果，可用 JMH Visualizer 等工具对比前后两个版本
+ * 其余参数原样交给 org.openjdk.jmh.Main
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        List<String> options = new ArrayList<>(Arrays.asList(args));
+        if (!options.contains("-rf")) {
+            Path result = Path.of(System.getProperty("jmh.result", "target/jmh/jmh-result.json"));
+            if (result.getParent() != null) {
+                Files.createDirectories(result.getParent());
+            }
+            options.addAll(List.of("-rf", "json", "-rff", result.toString()));
+        }
+        org.openjdk.jmh.Main.main(options.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.student.benchmark;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.example.student.config.JwtInterceptor;
+import org.example.student.entity.Account;
+import org.example.student.util.JwtUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.security.Key;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 每个请求的认证开销：改造前每次构建解析器并解析两次token，改造后共享解析器解析一次，
+ * 重复访问的token命中已验证缓存时不再校验签名；登录时的签发开销单独测量
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtInterceptorBenchmark {
+
+    private Account account;
+    private Key legacyKey;
+    private String legacyToken;
+    private String token;
+    private JwtInterceptor interceptor;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() throws Exception {
+        account = Account.builder().username("CS2024001").role(Account.Role.STUDENT).build();
+        token = JwtUtil.generateToken(account);
+
+        legacyKey = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        legacyToken = Jwts.builder()
+                .setSubject(account.getUsername())
+                .claim("role", account.getRole().name())
+                .setIssuedAt(new Date())
+                .setExpiration(new Date(System.currentTimeMillis() + 86400000))
+                .signWith(legacyKey)
+                .compact();
+
+        interceptor = new JwtInterceptor();
+        request = new MockHttpServletRequest("GET", "/user/info");
+        request.addHeader("Authorization", "Bearer " + token);
+        response = new MockHttpServletResponse();
+        // 预热缓存
+        interceptor.preHandle(request, response, null);
+    }
+
+    // 登录时签发token
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken(account);
+    }
+
+    // 只验证签名和有效期
+    @Benchmark
+    public boolean validateToken() {
+        return JwtUtil.validateToken(token);
+    }
+
+    // 改造前：拦截器验证一次、控制器取用户名再解析一次，每次都新建解析器
+    @Benchmark
+    public String legacyValidateThenParse() {
+        Jwts.parserBuilder().setSigningKey(legacyKey).build().parseClaimsJws(legacyToken);
+        return Jwts.parserBuilder().setSigningKey(legacyKey).build().parseClaimsJws(legacyToken).getBody().getSubject();
+    }
+
+    // 改造后缓存未命中：共享解析器，只解析一次
+    @Benchmark
+    public String sharedParserSingleParse() {
+        return JwtUtil.parseToken(token).getSubject();
+    }
+
+    // 改造后缓存命中：完整的拦截器调用
+    @Benchmark
+    public Object interceptorCached() throws Exception {
+        interceptor.preHandle(request, response, null);
+        return request.getAttribute(JwtInterceptor.PRINCIPAL_ATTRIBUTE);
+    }
+}
@@ -0,0 +1,145 @@
+package org.example.student.benchmark;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import org.example.student.util.LogMask;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一次成功登录的日志开销（多线程模拟登录高峰）：
+ * 改造前每次登录同步打印 3 行到控制台（含明文密码和完整响应），改造后通过 SLF4J 参数化日志输出，
+ * 分别测量关闭（默认 INFO 级别下登录成功只有 DEBUG 日志）、同步写出和异步写出三种情况。
+ * 控制台输出用临时文件代替，避免基准输出被日志淹没。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class LoginLoggingBenchmark {
+
+    private static final String USERNAME = "CS2024001";
+    private static final String PASSWORD = "123456";
+    private static final String RESULT = "Result(code=200, message=登录成功, data=LoginData(token=eyJhbGciOiJIUzI1NiJ9.eyJzdWIiOiJD"
+            + "UzIwMjQwMDEiLCJyb2xlIjoiU1RVREVOVCJ9.c2lnbmF0dXJl, account=Account(id=1, username=CS2024001, password=pbkdf2$210000$"
+            + "c2FsdHNhbHRzYWx0$aGFzaGhhc2hoYXNoaGFzaA==, role=STUDENT, firstLogin=false)))";
+
+    private File legacyFile;
+    private PrintStream legacyConsole;
+    private LoggerContext context;
+    private Logger disabled;
+    private Logger sync;
+    private Logger async;
+
+    @Setup
+    public void setUp() throws IOException {
+        legacyFile = File.createTempFile("legacy-console", ".log");
+        legacyConsole = new PrintStream(new FileOutputStream(legacyFile), true, StandardCharsets.UTF_8);
+
+        // 独立的日志上下文，不受应用 logback-spring.xml 影响；需要显式设置 MDC 适配器
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        FileAppender<ILoggingEvent> syncFile = fileAppender("sync");
+        FileAppender<ILoggingEvent> asyncFile = fileAppender("async");
+        AsyncAppender asyncAppender = new AsyncAppender();
+        asyncAppender.setContext(context);
+        asyncAppender.setQueueSize(8192);
+        asyncAppender.setNeverBlock(true);
+        asyncAppender.addAppender(asyncFile);
+        asyncAppender.start();
+
+        disabled = logger("disabled", Level.INFO, syncFile);
+        sync = logger("sync", Level.DEBUG, syncFile);
+        async = logger("async", Level.DEBUG, asyncAppender);
+    }
+
+    @TearDown
+    public void tearDown() {
+        legacyConsole.close();
+        context.stop();
+        legacyFile.delete();
+    }
+
+    // 改造前：System.out.println 同步写出，自动刷新
+    @Benchmark
+    public void legacyPrintln() {
+        legacyConsole.println("登录请求 - 用户名: " + USERNAME + ", 密码: " + PASSWORD);
+        legacyConsole.println("密码验证结果: " + true);
+        legacyConsole.println("登录成功，返回数据: " + RESULT);
+    }
+
+    // 改造后默认配置：DEBUG 未开启，参数化消息不会被格式化
+    @Benchmark
+    public void slf4jDisabled() {
+        logSuccess(disabled);
+    }
+
+    // 改造后开启 DEBUG，同步写出
+    @Benchmark
+    public void slf4jSync() {
+        logSuccess(sync);
+    }
+
+    // 改造后开启 DEBUG，经 AsyncAppender 在后台线程写出
+    @Benchmark
+    public void slf4jAsync() {
+        logSuccess(async);
+    }
+
+    // 与 LoginController 成功路径相同的日志调用
+    private static void logSuccess(Logger log) {
+        log.debug("登录请求: username={}", LogMask.mask(USERNAME));
+        log.debug("登录成功: username={}, role={}", LogMask.mask(USERNAME), "STUDENT");
+    }
+
+    private FileAppender<ILoggingEvent> fileAppender(String name) throws IOException {
+        File file = File.createTempFile(name, ".log");
+        file.deleteOnExit();
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%d{yyyy-MM-dd'T'HH:mm:ss.SSSXXX} %5p [%t] %logger{39} : %m%n");
+        encoder.start();
+        FileAppender<ILoggingEvent> appender = new FileAppender<>();
+        appender.setContext(context);
+        appender.setName(name);
+        appender.setFile(file.getAbsolutePath());
+        appender.setEncoder(encoder);
+        appender.start();
+        return appender;
+    }
+
+    private Logger logger(String name, Level level, Appender<ILoggingEvent> appender) {
+        Logger logger = context.getLogger(name);
+        logger.setLevel(level);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+        return logger;
+    }
+}
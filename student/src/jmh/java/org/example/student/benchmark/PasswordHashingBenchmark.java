@@ -0,0 +1,61 @@
+package org.example.student.benchmark;
+
+import org.example.student.util.PasswordEncoder;
+import org.example.student.util.Pbkdf2PasswordHasher;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 不同迭代次数下 PBKDF2 每秒可完成的哈希/校验次数（单线程），用于按登录 SLO 和 CPU 核数选取
+ * password.hash.iterations。MD5 作为历史基线一并测量。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class PasswordHashingBenchmark {
+
+    private static final String PASSWORD = "Abc12345!";
+
+    @Param({"10000", "60000", "120000", "210000", "310000", "600000"})
+    private int iterations;
+
+    private Pbkdf2PasswordHasher hasher;
+    private String encoded;
+    private String md5;
+
+    @Setup
+    public void setUp() {
+        hasher = new Pbkdf2PasswordHasher(iterations);
+        encoded = hasher.hash(PASSWORD);
+        md5 = PasswordEncoder.encode(PASSWORD);
+    }
+
+    @Benchmark
+    public String pbkdf2Hash() {
+        return hasher.hash(PASSWORD);
+    }
+
+    @Benchmark
+    public boolean pbkdf2Matches() {
+        return hasher.matches(PASSWORD, encoded);
+    }
+
+    @Benchmark
+    public boolean legacyMd5Matches() {
+        return PasswordEncoder.matches(PASSWORD, md5);
+    }
+}
@@ -0,0 +1,51 @@
+package org.example.student.benchmark;
+
+import org.example.student.util.PasswordPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 修改密码时的复杂度校验：改造前每次调用执行四次 String.matches（每次都重新编译正则），
+ * 改造后 PasswordPolicy 一次遍历完成
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordPolicyBenchmark {
+
+    // 合法密码、缺少特殊字符（需扫描全部规则）、长密码
+    @Param({"Abc12345!", "Abcdefgh12345", "correct-horse-battery-staple-2024"})
+    private String password;
+
+    @Benchmark
+    public boolean legacyRegex() {
+        if (password.length() <= 7) {
+            return false;
+        }
+        if (!password.matches(".*\\d.*")) {
+            return false;
+        }
+        if (!password.matches(".*[a-zA-Z].*")) {
+            return false;
+        }
+        return password.matches(".*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?].*");
+    }
+
+    @Benchmark
+    public boolean passwordPolicy() {
+        return PasswordPolicy.isValid(password);
+    }
+}
@@ -0,0 +1,117 @@
+package org.example.student.benchmark;
+
+import org.example.student.StudentApplication;
+import org.example.student.dto.StudentCourseDTO;
+import org.example.student.repository.StudentCourseRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 只读事务与读写事务下同一个列表请求（/enrollment/course/{courseId} 的一页名单，加载实体并转换为 DTO）的开销对比。
+ * 读写事务会为每个加载的实体保留脏检查快照，并在提交时做一次 flush；只读事务两者都省掉。
+ * 每次调用的堆分配用 GC profiler 查看（gc.alloc.rate.norm），CPU 开销看平均耗时：
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="ReadOnlyTransaction -prof gc"
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReadOnlyTransactionBenchmark {
+
+    @Param({"50", "200"})
+    private int rows;
+
+    private ConfigurableApplicationContext context;
+    private StudentCourseRepository studentCourseRepository;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+    private Long courseId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(StudentApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN", "--spring.jpa.show-sql=false");
+        studentCourseRepository = context.getBean(StudentCourseRepository.class);
+        PlatformTransactionManager transactionManager = context.getBean(PlatformTransactionManager.class);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        courseId = seed(context.getBean(JdbcTemplate.class), rows);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<StudentCourseDTO> readWriteTransaction() {
+        return readWrite.execute(status -> loadPage());
+    }
+
+    @Benchmark
+    public List<StudentCourseDTO> readOnlyTransaction() {
+        return readOnly.execute(status -> loadPage());
+    }
+
+    private List<StudentCourseDTO> loadPage() {
+        return studentCourseRepository.findPageByCourseId(courseId, PageRequest.of(0, rows))
+                .map(StudentCourseDTO::new)
+                .getContent();
+    }
+
+    // 一门课程、rows 名选课学生，均带专业和账号，与名单查询的 JOIN FETCH 对应
+    private static Long seed(JdbcTemplate jdbcTemplate, int rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO major (major_code, major_name, created_time, updated_time) VALUES ('RO', '只读专业', ?, ?)",
+                now, now);
+        Long majorId = jdbcTemplate.queryForObject("SELECT id FROM major WHERE major_code = 'RO'", Long.class);
+        jdbcTemplate.update("INSERT INTO course (course_code, course_name, credits, created_time, updated_time) " +
+                "VALUES ('RO-C1', '只读课程', ?, ?, ?)", new BigDecimal("2.0"), now, now);
+        Long courseId = jdbcTemplate.queryForObject("SELECT id FROM course WHERE course_code = 'RO-C1'", Long.class);
+
+        List<Object[]> studentRows = new ArrayList<>();
+        for (int i = 1; i <= rows; i++) {
+            studentRows.add(new Object[]{String.format("RO2025%05d", i), "只读学生" + i, 19,
+                    String.format("135%08d", i), Date.valueOf(LocalDate.of(2025, 9, 1)), i, majorId, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO student (student_id, name, age, phone, enrollment_date, sequence_number, " +
+                "major_id, created_time, updated_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", studentRows);
+        jdbcTemplate.update("INSERT INTO account (username, password, role, first_login, student_id, created_time, updated_time) " +
+                "SELECT student_id, 'pbkdf2$benchmark', 'STUDENT', FALSE, id, ?, ? FROM student WHERE major_id = ?",
+                now, now, majorId);
+        jdbcTemplate.update("INSERT INTO student_course (id, student_id, course_id, selected_time) " +
+                "SELECT NEXT VALUE FOR student_course_seq, id, ?, ? FROM student WHERE major_id = ?", courseId, now, majorId);
+        return courseId;
+    }
+}
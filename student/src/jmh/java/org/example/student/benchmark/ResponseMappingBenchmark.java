@@ -0,0 +1,114 @@
+package org.example.student.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.student.dto.AccountDTO;
+import org.example.student.dto.StudentCourseDTO;
+import org.example.student.entity.Account;
+import org.example.student.entity.Course;
+import org.example.student.entity.Major;
+import org.example.student.entity.Student;
+import org.example.student.entity.StudentCourse;
+import org.example.student.util.Result;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 列表接口在数据库之后的开销：实体到 DTO 的转换（StudentCourseDTO、AccountDTO），
+ * 以及 Result&lt;List&lt;...&gt;&gt; 的 JSON 序列化。rows 对应一页的行数（/enrollment/course 默认 200 行）。
+ * ObjectMapper 与 Spring Boot 默认配置一致（Jackson2ObjectMapperBuilder）。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseMappingBenchmark {
+
+    @Param({"50", "200"})
+    private int rows;
+
+    private ObjectMapper objectMapper;
+    private List<StudentCourse> selections;
+    private List<Account> accounts;
+    private Result<List<StudentCourseDTO>> enrollmentResult;
+    private Result<List<AccountDTO>> accountResult;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        Major major = Major.builder().id(1L).majorCode("CS").majorName("计算机科学与技术")
+                .description("计算机科学与技术专业").createdTime(now).updatedTime(now).build();
+        Course course = Course.builder().id(1L).courseCode("CS101").courseName("数据结构")
+                .description("线性表、树和图").credits(new BigDecimal("3.0")).capacity(300)
+                .createdTime(now).updatedTime(now).build();
+
+        selections = new ArrayList<>(rows);
+        accounts = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            Student student = Student.builder().id((long) i).studentId(String.format("CS2024%03d", i))
+                    .name("学生" + i).age(19).phone(String.format("138%08d", i))
+                    .enrollmentDate(LocalDate.of(2024, 9, 1)).sequenceNumber(i).major(major)
+                    .createdTime(now).updatedTime(now).build();
+            selections.add(StudentCourse.builder().id((long) i).student(student).course(course)
+                    .selectedTime(now).build());
+            accounts.add(Account.builder().id((long) i).username(student.getStudentId())
+                    .password("pbkdf2$310000$c2FsdA==$aGFzaA==").role(Account.Role.STUDENT).firstLogin(false)
+                    .student(student).createdTime(now).updatedTime(now).build());
+        }
+        enrollmentResult = Result.success(mapEnrollments());
+        accountResult = Result.success(mapAccounts());
+    }
+
+    @Benchmark
+    public List<StudentCourseDTO> mapEnrollments() {
+        List<StudentCourseDTO> dtos = new ArrayList<>(selections.size());
+        for (StudentCourse selection : selections) {
+            dtos.add(new StudentCourseDTO(selection));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public List<AccountDTO> mapAccounts() {
+        List<AccountDTO> dtos = new ArrayList<>(accounts.size());
+        for (Account account : accounts) {
+            dtos.add(AccountDTO.from(account));
+        }
+        return dtos;
+    }
+
+    @Benchmark
+    public byte[] serializeEnrollments() throws Exception {
+        return objectMapper.writeValueAsBytes(enrollmentResult);
+    }
+
+    @Benchmark
+    public byte[] serializeAccounts() throws Exception {
+        return objectMapper.writeValueAsBytes(accountResult);
+    }
+
+    // 控制器中的完整路径：转换后立即序列化
+    @Benchmark
+    public byte[] mapAndSerializeEnrollments() throws Exception {
+        return objectMapper.writeValueAsBytes(Result.success(mapEnrollments()));
+    }
+}
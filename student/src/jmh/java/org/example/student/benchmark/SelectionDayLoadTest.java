@@ -0,0 +1,311 @@
+package org.example.student.benchmark;
+
+import org.example.student.StudentApplication;
+import org.example.student.service.PasswordService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 选课日压测：分别以平台线程和虚拟线程模式在进程内启动应用，由固定数量的闭环客户端按选课日的请求比例持续访问，
+ * 预热后统计吞吐量和 p50/p95/p99 延迟。与 JMH 基准不同，这里测的是整条 HTTP + JDBC 链路。
+ *
+ * 参数均为 key=value：
+ * mode=platform|virtual|both（默认 both），clients 并发客户端数，seconds 测量时长，warmup 预热时长，
+ * students / courses / capacity 种子数据规模；以 spring. 或 server. 开头的参数原样传给应用，
+ * 例如 spring.profiles.active=prod 压测 MySQL（连接信息见 application-prod.properties）。
+ * 虚拟线程模式需要 Java 21 及以上，低版本 JVM 上跳过。两种模式在同一 JVM 中先后运行，各自单独预热。
+ */
+public class SelectionDayLoadTest {
+
+    // 选课日流量比例：以选课和查看已选课程为主，夹杂登录、浏览课程和退课
+    private enum Operation {
+        SELECT(35), ENROLLMENTS(25), COURSE_LIST(15), LOGIN(10), DROP(10), CREDITS(5);
+
+        final int weight;
+
+        Operation(int weight) {
+            this.weight = weight;
+        }
+    }
+
+    private static final String PASSWORD = "123456";
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            String option = arg.startsWith("--") ? arg.substring(2) : arg;
+            int eq = option.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("参数格式应为 key=value: " + arg);
+            }
+            if (option.startsWith("spring.") || option.startsWith("server.")) {
+                springArgs.add("--" + option);
+            } else {
+                options.put(option.substring(0, eq), option.substring(eq + 1));
+            }
+        }
+        String mode = options.getOrDefault("mode", "both");
+
+        List<String> report = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            if (!mode.equals("both") && mode.equals("virtual") != virtual) {
+                continue;
+            }
+            if (virtual && Runtime.version().feature() < 21) {
+                System.out.println("当前 JVM 为 Java " + Runtime.version().feature() + "，虚拟线程模式需要 Java 21+，已跳过");
+                continue;
+            }
+            report.addAll(run(virtual, options, springArgs));
+        }
+
+        System.out.printf("%n%-9s %-12s %9s %10s %8s %8s %8s %8s %7s %6s%n",
+                "模式", "操作", "请求数", "吞吐/s", "p50ms", "p95ms", "p99ms", "maxms", "4xx", "错误");
+        report.forEach(System.out::println);
+    }
+
+    private static List<String> run(boolean virtual, Map<String, String> options, List<String> springArgs) throws Exception {
+        int clients = Integer.parseInt(options.getOrDefault("clients", "200"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int students = Integer.parseInt(options.getOrDefault("students", "2000"));
+        int courses = Integer.parseInt(options.getOrDefault("courses", "40"));
+        int capacity = Integer.parseInt(options.getOrDefault("capacity", "150"));
+        String modeName = virtual ? "virtual" : "platform";
+
+        List<String> appArgs = new ArrayList<>(springArgs);
+        addDefault(appArgs, "server.port", "0");
+        addDefault(appArgs, "spring.threads.virtual.enabled", String.valueOf(virtual));
+        // 登录请求只需让哈希保持可测的 CPU 成本，不让它主导整体结果
+        addDefault(appArgs, "password.hash.iterations", "10000");
+        addDefault(appArgs, "logging.level.org.example.student", "WARN");
+
+        System.out.printf("启动应用（%s 线程模式）...%n", modeName);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(StudentApplication.class)
+                .run(appArgs.toArray(new String[0]))) {
+            int port = Integer.parseInt(context.getEnvironment().getProperty("local.server.port"));
+            Fixture fixture = seed(context, students, courses, capacity);
+            System.out.printf("已准备 %d 名学生、%d 门课程，%d 个客户端，预热 %ds，测量 %ds%n",
+                    students, courses, clients, warmup, seconds);
+
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            String base = "http://localhost:" + port;
+
+            long measureFrom = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmup);
+            long deadline = measureFrom + TimeUnit.SECONDS.toNanos(seconds);
+            ExecutorService executor = Executors.newFixedThreadPool(clients);
+            List<Future<Recorder>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                futures.add(executor.submit(() -> drive(http, base, fixture, measureFrom, deadline)));
+            }
+            Recorder total = new Recorder();
+            for (Future<Recorder> future : futures) {
+                total.merge(future.get());
+            }
+            executor.shutdown();
+            return total.report(modeName, seconds);
+        }
+    }
+
+    // 单个闭环客户端：收到响应后立即发下一个请求
+    private static Recorder drive(HttpClient http, String base, Fixture fixture, long measureFrom, long deadline) {
+        Recorder recorder = new Recorder();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long now;
+        while ((now = System.nanoTime()) < deadline) {
+            Operation operation = pick(random);
+            HttpRequest request = buildRequest(operation, base, fixture, random);
+            int status;
+            try {
+                status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            } catch (Exception e) {
+                status = -1;
+            }
+            long end = System.nanoTime();
+            if (now >= measureFrom) {
+                recorder.record(operation, end - now, status);
+            }
+        }
+        return recorder;
+    }
+
+    private static Operation pick(ThreadLocalRandom random) {
+        int roll = random.nextInt(100);
+        for (Operation operation : Operation.values()) {
+            roll -= operation.weight;
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        return Operation.SELECT;
+    }
+
+    private static HttpRequest buildRequest(Operation operation, String base, Fixture fixture, ThreadLocalRandom random) {
+        int index = random.nextInt(fixture.studentIds.length);
+        long studentId = fixture.studentIds[index];
+        long courseId = fixture.courseIds[random.nextInt(fixture.courseIds.length)];
+        String selection = "?studentId=" + studentId + "&courseId=" + courseId;
+        HttpRequest.Builder builder;
+        switch (operation) {
+            case SELECT -> builder = HttpRequest.newBuilder(URI.create(base + "/student-course/select" + selection))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+            case DROP -> builder = HttpRequest.newBuilder(URI.create(base + "/student-course/drop" + selection))
+                    .DELETE();
+            case ENROLLMENTS -> builder = HttpRequest.newBuilder(URI.create(base + "/enrollment/student/" + studentId));
+            case CREDITS -> builder = HttpRequest.newBuilder(URI.create(base + "/student-course/credits/" + studentId));
+            case COURSE_LIST -> builder = HttpRequest.newBuilder(URI.create(base + "/course/list"));
+            default -> builder = HttpRequest.newBuilder(URI.create(base + "/user/login"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"username\":\"" + fixture.usernames[index]
+                            + "\",\"password\":\"" + PASSWORD + "\"}"));
+        }
+        return builder.timeout(Duration.ofSeconds(30)).build();
+    }
+
+    private static void addDefault(List<String> args, String key, String value) {
+        if (args.stream().noneMatch(arg -> arg.startsWith("--" + key + "="))) {
+            args.add("--" + key + "=" + value);
+        }
+    }
+
+    // 直接用 JDBC 写入种子数据，所有账号共用同一个默认密码密文
+    private static Fixture seed(ConfigurableApplicationContext context, int students, int courses, int capacity) {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        String encoded = context.getBean(PasswordService.class).encode(PASSWORD);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO major (major_code, major_name, created_time, updated_time) VALUES ('LT', '压测专业', ?, ?)",
+                now, now);
+        Long majorId = jdbcTemplate.queryForObject("SELECT id FROM major WHERE major_code = 'LT'", Long.class);
+
+        List<Object[]> courseRows = new ArrayList<>();
+        for (int i = 1; i <= courses; i++) {
+            courseRows.add(new Object[]{"LT-C" + i, "压测课程" + i, new BigDecimal("2.0"), capacity, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO course (course_code, course_name, credits, capacity, created_time, updated_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", courseRows);
+
+        List<Object[]> studentRows = new ArrayList<>();
+        for (int i = 1; i <= students; i++) {
+            studentRows.add(new Object[]{String.format("LT2025%05d", i), "压测学生" + i, 19,
+                    String.format("139%08d", i), Date.valueOf(LocalDate.of(2025, 9, 1)), i, majorId, now, now});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO student (student_id, name, age, phone, enrollment_date, sequence_number, " +
+                "major_id, created_time, updated_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)", studentRows);
+        jdbcTemplate.update("INSERT INTO account (username, password, role, first_login, student_id, created_time, updated_time) " +
+                "SELECT student_id, ?, 'STUDENT', FALSE, id, ?, ? FROM student WHERE major_id = ?", encoded, now, now, majorId);
+
+        Fixture fixture = new Fixture();
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, student_id FROM student WHERE major_id = ? ORDER BY id", majorId);
+        fixture.studentIds = rows.stream().mapToLong(row -> ((Number) row.get("id")).longValue()).toArray();
+        fixture.usernames = rows.stream().map(row -> (String) row.get("student_id")).toArray(String[]::new);
+        fixture.courseIds = jdbcTemplate.queryForList("SELECT id FROM course WHERE course_code LIKE 'LT-C%'", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        return fixture;
+    }
+
+    private static final class Fixture {
+        long[] studentIds;
+        String[] usernames;
+        long[] courseIds;
+    }
+
+    // 按操作记录每个请求的耗时（纳秒），结束后合并排序求分位数
+    private static final class Recorder {
+        final Map<Operation, Samples> samples = new LinkedHashMap<>();
+
+        void record(Operation operation, long nanos, int status) {
+            samples.computeIfAbsent(operation, k -> new Samples()).add(nanos, status);
+        }
+
+        void merge(Recorder other) {
+            other.samples.forEach((operation, s) -> samples.computeIfAbsent(operation, k -> new Samples()).addAll(s));
+        }
+
+        List<String> report(String mode, int seconds) {
+            List<String> lines = new ArrayList<>();
+            Samples all = new Samples();
+            for (Operation operation : Operation.values()) {
+                Samples s = samples.get(operation);
+                if (s != null) {
+                    all.addAll(s);
+                    lines.add(s.format(mode, operation.name().toLowerCase(), seconds));
+                }
+            }
+            lines.add(0, all.format(mode, "all", seconds));
+            return lines;
+        }
+    }
+
+    private static final class Samples {
+        long[] nanos = new long[1024];
+        int count;
+        int clientErrors;
+        int errors;
+
+        void add(long value, int status) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = value;
+            if (status >= 400 && status < 500) {
+                clientErrors++;
+            } else if (status < 200 || status >= 500) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            clientErrors += other.clientErrors;
+            errors += other.errors;
+        }
+
+        // 选课/退课被拒（已满、已选、未选）按业务约定返回 400，计入 4xx 而不是错误
+        String format(String mode, String operation, int seconds) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            return String.format("%-9s %-12s %9d %10.1f %8.2f %8.2f %8.2f %8.2f %7d %6d",
+                    mode, operation, count, (double) count / seconds,
+                    millis(sorted, 0.50), millis(sorted, 0.95), millis(sorted, 0.99),
+                    count == 0 ? 0.0 : sorted[count - 1] / 1e6, clientErrors, errors);
+        }
+
+        private static double millis(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return sorted[Math.max(0, index)] / 1e6;
+        }
+    }
+}
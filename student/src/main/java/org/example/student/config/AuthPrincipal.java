@@ -0,0 +1,23 @@
+package org.example.student.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Date;
+
+/**
+ * 已通过JWT认证的当前用户
+ * 由 {@link JwtInterceptor} 在验证token后放入请求属性，控制器通过
+ * {@code @RequestAttribute(JwtInterceptor.PRINCIPAL_ATTRIBUTE)} 获取，无需再次解析token
+ */
+@Data
+@AllArgsConstructor
+public class AuthPrincipal {
+    private String username;
+    private String role;
+    private Date expiresAt;
+
+    public boolean isExpired() {
+        return expiresAt != null && expiresAt.getTime() <= System.currentTimeMillis();
+    }
+}
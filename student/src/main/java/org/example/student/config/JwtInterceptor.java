@@ -1,5 +1,6 @@
 package org.example.student.config;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.UnsupportedJwtException;
@@ -13,10 +14,19 @@ import org.springframework.web.servlet.HandlerInterceptor;
 /**
  * JWT认证拦截器
  * 用于拦截需要认证的请求，验证JWT token的有效性
+ * 每个请求只验证一次token，并把当前用户以 {@link AuthPrincipal} 的形式放入请求属性
  */
 @Component
 public class JwtInterceptor implements HandlerInterceptor {
     
+    // 请求属性名，控制器通过 @RequestAttribute 读取当前用户
+    public static final String PRINCIPAL_ATTRIBUTE = "authPrincipal";
+    
+    // 已验证token缓存的最大条目数
+    private static final int TOKEN_CACHE_SIZE = 10000;
+    
+    private final VerifiedTokenCache tokenCache = new VerifiedTokenCache(TOKEN_CACHE_SIZE);
+    
     /**
      * 在控制器方法执行之前执行
      * 
@@ -61,17 +71,21 @@ public class JwtInterceptor implements HandlerInterceptor {
         // 提取JWT token（去除"Bearer "前缀）
         String token = authHeader.substring(7);
         
+        // 同一个token验证过且未过期时直接使用缓存结果，跳过签名校验
+        AuthPrincipal principal = tokenCache.get(token);
+        if (principal != null) {
+            request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+            return true;
+        }
+        
         try {
-            // 验证token有效性
-            if (JwtUtil.validateToken(token)) {
-                // token有效，放行请求
-                return true;
-            } else {
-                // token无效，返回401错误
-                response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                response.getWriter().write("{\"code\":401,\"message\":\"认证令牌无效或已过期\"}");
-                return false;
-            }
+            // 验证token有效性并解析声明，整个请求只解析这一次
+            Claims claims = JwtUtil.parseToken(token);
+            principal = new AuthPrincipal(claims.getSubject(), claims.get("role", String.class), claims.getExpiration());
+            tokenCache.put(token, principal);
+            // token有效，放行请求
+            request.setAttribute(PRINCIPAL_ATTRIBUTE, principal);
+            return true;
         } catch (ExpiredJwtException e) {
             // token已过期
             response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -0,0 +1,65 @@
+package org.example.student.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.example.student.service.CourseEventService;
+import org.example.student.service.CourseService;
+import org.example.student.service.PasswordService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 业务相关的指标（接口耗时、JVM、Hikari 连接池等由 Spring Boot Actuator 自动采集）
+ * 所有指标通过管理端口（management.server.port）上的 /actuator/prometheus 抓取，对外的应用端口不提供。
+ */
+@Configuration
+public class MetricsConfig {
+
+    // 课程目录缓存的命中、未命中和失效次数
+    @Bean
+    public MeterBinder courseCatalogCacheMetrics(CourseService courseService) {
+        return registry -> {
+            FunctionCounter.builder("course.catalog.cache.requests", courseService,
+                            s -> ((Number) s.getCatalogStatistics().get("hits")).doubleValue())
+                    .tag("result", "hit")
+                    .description("课程目录缓存请求数")
+                    .register(registry);
+            FunctionCounter.builder("course.catalog.cache.requests", courseService,
+                            s -> ((Number) s.getCatalogStatistics().get("misses")).doubleValue())
+                    .tag("result", "miss")
+                    .description("课程目录缓存请求数")
+                    .register(registry);
+            FunctionCounter.builder("course.catalog.cache.evictions", courseService,
+                            s -> ((Number) s.getCatalogStatistics().get("evictions")).doubleValue())
+                    .description("课程目录缓存失效次数")
+                    .register(registry);
+        };
+    }
+
+    // 课程变化推送（SSE）的在线订阅数，以及因跟不上推送被断开的连接数
+    @Bean
+    public MeterBinder courseEventMetrics(CourseEventService courseEventService) {
+        return registry -> {
+            Gauge.builder("course.events.subscribers", courseEventService, CourseEventService::getSubscriberCount)
+                    .description("课程变化推送的订阅连接数")
+                    .register(registry);
+            FunctionCounter.builder("course.events.evicted", courseEventService, CourseEventService::getEvictedCount)
+                    .description("因积压或写出超时被断开的订阅连接数")
+                    .register(registry);
+        };
+    }
+
+    // 密码哈希线程池的排队和活跃任务数，登录高峰时观察是否接近拒绝阈值
+    @Bean
+    public MeterBinder passwordHashingMetrics(PasswordService passwordService) {
+        return registry -> {
+            Gauge.builder("password.hash.queued", passwordService, PasswordService::getQueuedTasks)
+                    .description("等待计算的密码哈希任务数")
+                    .register(registry);
+            Gauge.builder("password.hash.active", passwordService, PasswordService::getActiveTasks)
+                    .description("正在计算的密码哈希任务数")
+                    .register(registry);
+        };
+    }
+}
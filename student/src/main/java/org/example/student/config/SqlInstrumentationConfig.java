@@ -0,0 +1,70 @@
+package org.example.student.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.example.student.service.SqlStatisticsService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * JDBC 层 SQL 统计
+ * 用 datasource-proxy 包装应用的数据源，并用过滤器标记请求边界，统计数据见 {@link SqlStatisticsService}。
+ * 设置 sql.instrumentation.enabled=false 可完全关闭。
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.instrumentation.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlInstrumentationConfig {
+
+    // 静态方法声明，避免后置处理器提前初始化本配置类
+    @Bean
+    public static BeanPostProcessor sqlInstrumentationDataSourcePostProcessor(ObjectProvider<SqlStatisticsService> statistics) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(statistics.getObject().getListener())
+                            .proxyResultSet()
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<OncePerRequestFilter> sqlRequestFilter(SqlStatisticsService statistics) {
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+                    throws ServletException, IOException {
+                statistics.beginRequest(request.getMethod() + " " + request.getRequestURI());
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    // 按路由模板归类（/student-course/selected/{studentId}），避免每个 ID 各占一条统计
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    statistics.endRequest(request.getMethod(), pattern != null ? pattern.toString() : "(unmapped)");
+                }
+            }
+        };
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.setName("sqlRequestFilter");
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example.student.config;
+
+import org.example.student.service.SqlStatisticsService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * GET /actuator/sql 查看 SQL 统计（耗时直方图、最耗时的语句、各接口每请求语句数、疑似 N+1、慢查询），
+ * DELETE /actuator/sql 清零后重新统计，便于压测前后对比。
+ * 只在管理端口（management.server.port，默认仅监听本机）上提供，对外的应用端口上不存在。
+ */
+@Component
+@Endpoint(id = "sql")
+public class SqlStatisticsEndpoint {
+
+    @Autowired
+    private SqlStatisticsService sqlStatisticsService;
+
+    @ReadOperation
+    public Map<String, Object> statistics() {
+        return sqlStatisticsService.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        sqlStatisticsService.reset();
+    }
+}
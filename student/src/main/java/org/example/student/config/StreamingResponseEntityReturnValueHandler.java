@@ -0,0 +1,35 @@
+package org.example.student.config;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.AsyncHandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBodyReturnValueHandler;
+
+/**
+ * 声明为 ResponseEntity&lt;?&gt; 的接口（如 /user/student/import）：出错时同步返回 Result，
+ * 运行时 body 为 StreamingResponseBody 时按流式响应处理。
+ * Spring 自带的处理器只按声明的泛型识别流式响应，否则会交给消息转换器而无法写出。
+ */
+class StreamingResponseEntityReturnValueHandler implements AsyncHandlerMethodReturnValueHandler {
+
+    private final StreamingResponseBodyReturnValueHandler delegate = new StreamingResponseBodyReturnValueHandler();
+
+    @Override
+    public boolean isAsyncReturnValue(Object returnValue, MethodParameter returnType) {
+        return returnValue instanceof ResponseEntity<?> entity && entity.getBody() instanceof StreamingResponseBody;
+    }
+
+    @Override
+    public boolean supportsReturnType(MethodParameter returnType) {
+        return ResponseEntity.class.isAssignableFrom(returnType.getParameterType());
+    }
+
+    @Override
+    public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                  ModelAndViewContainer mavContainer, NativeWebRequest webRequest) throws Exception {
+        delegate.handleReturnValue(returnValue, returnType, mavContainer, webRequest);
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.student.config;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 已验证token的缓存
+ *
+ * 以token的SHA-256摘要为键（不在内存中保留原始token），缓存验证结果直到token过期，
+ * 同一个token再次访问时跳过签名校验和载荷解析。条目数超过上限时先清理已过期条目，仍超出则整体清空。
+ */
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, AuthPrincipal> entries = new ConcurrentHashMap<>();
+
+    public VerifiedTokenCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    // 返回未过期的缓存结果，没有缓存或已过期时返回 null
+    public AuthPrincipal get(String token) {
+        String key = digest(token);
+        AuthPrincipal principal = entries.get(key);
+        if (principal != null && principal.isExpired()) {
+            entries.remove(key, principal);
+            return null;
+        }
+        return principal;
+    }
+
+    public void put(String token, AuthPrincipal principal) {
+        if (principal.getExpiresAt() == null || principal.isExpired()) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            entries.values().removeIf(AuthPrincipal::isExpired);
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+        }
+        entries.put(digest(token), principal);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String digest(String token) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("无法计算token摘要", e);
+        }
+    }
+}
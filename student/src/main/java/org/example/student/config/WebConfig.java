@@ -1,12 +1,33 @@
 package org.example.student.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.util.List;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
     
+    @Autowired
+    private JwtInterceptor jwtInterceptor;
+    
+    // 需要读取当前登录用户的接口，由拦截器统一验证token并提供 AuthPrincipal
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(jwtInterceptor)
+                .addPathPatterns("/user/info", "/user/change-password", "/account/change-password",
+                        "/user/student/import");
+    }
+    
+    @Override
+    public void addReturnValueHandlers(List<HandlerMethodReturnValueHandler> handlers) {
+        handlers.add(new StreamingResponseEntityReturnValueHandler());
+    }
+    
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/**")
@@ -20,6 +41,7 @@ public class WebConfig implements WebMvcConfigurer {
                                "http://localhost:5181")
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("X-Total-Count", "X-Next-Cursor")
                 .allowCredentials(true);
     }
 }
\ No newline at end of file
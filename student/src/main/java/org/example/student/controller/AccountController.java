@@ -1,35 +1,49 @@
 package org.example.student.controller;
 
+import lombok.extern.slf4j.Slf4j;
+import org.example.student.config.AuthPrincipal;
+import org.example.student.config.JwtInterceptor;
 import org.example.student.dto.AccountDTO;
+import org.example.student.dto.AccountSummaryDTO;
 import org.example.student.dto.ChangePasswordRequest;
 import org.example.student.entity.Account;
 import org.example.student.service.AccountService;
 import org.example.student.util.Result;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
+@Slf4j
 @RestController
 @RequestMapping("/account")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175", "http://localhost:5176", "http://localhost:5177", "http://localhost:5178", "http://localhost:5179"})
 public class AccountController {
     
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    // 账户列表允许排序的字段
+    private static final Set<String> SORTABLE_FIELDS = Set.of("id", "username", "role", "createdTime", "updatedTime");
+    
     @Autowired
     private AccountService accountService;
     
     // 修改密码接口
     @PostMapping("/change-password")
     public ResponseEntity<Result<String>> changePassword(
-            @RequestHeader("Authorization") String token,
+            @RequestAttribute(JwtInterceptor.PRINCIPAL_ATTRIBUTE) AuthPrincipal principal,
             @RequestBody ChangePasswordRequest changePasswordRequest) {
         try {
-            // 从token中提取用户名
-            String username = getUsernameFromToken(token);
+            // 拦截器已验证token，直接使用其中的用户名
+            String username = principal.getUsername();
             
             // 调用服务修改密码
             accountService.changePassword(username, changePasswordRequest);
@@ -41,30 +55,32 @@ public class AccountController {
         }
     }
     
-    // 从JWT token中提取用户名
-    private String getUsernameFromToken(String token) {
-        if (token != null && token.startsWith("Bearer ")) {
-            token = token.substring(7); // 移除 "Bearer " 前缀
-        }
-        return org.example.student.util.JwtUtil.getUsernameFromToken(token);
-    }
-    
-    // 获取所有账户
+    // 分页获取账户列表，可按角色和用户名前缀过滤，sort 形如 username,desc；总数通过 X-Total-Count 响应头返回
     @RequestMapping(value = "/list", method = {RequestMethod.GET, RequestMethod.OPTIONS})
-    public ResponseEntity<Result<List<AccountDTO>>> getAllAccounts(HttpServletRequest request) {
+    public ResponseEntity<Result<List<AccountSummaryDTO>>> getAllAccounts(@RequestParam(defaultValue = "0") int page,
+                                                                          @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                                                          @RequestParam(required = false) Account.Role role,
+                                                                          @RequestParam(required = false) String username,
+                                                                          @RequestParam(defaultValue = "id") String sort,
+                                                                          HttpServletRequest request) {
         // 处理预检请求
         if (request.getMethod().equals("OPTIONS")) {
-            return ResponseEntity.ok(Result.success("OK", (List<AccountDTO>) null));
+            return ResponseEntity.ok(Result.success("OK", (List<AccountSummaryDTO>) null));
         }
         
         try {
-            List<Account> accounts = accountService.getAllAccounts();
-            List<AccountDTO> accountDTOs = accounts.stream()
-                    .map(AccountDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(Result.success("获取账户列表成功", accountDTOs));
+            Sort order = parseSort(sort);
+            if (order == null) {
+                return ResponseEntity.badRequest()
+                        .body(Result.error("不支持的排序: " + sort));
+            }
+            Page<AccountSummaryDTO> accounts = accountService.getAccountSummaries(role, username,
+                    PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE), order));
+            return ResponseEntity.ok()
+                    .header(TOTAL_COUNT_HEADER, String.valueOf(accounts.getTotalElements()))
+                    .body(Result.success("获取账户列表成功", accounts.getContent()));
         } catch (Exception e) {
-            e.printStackTrace(); // 打印异常堆栈以便调试
+            log.warn("获取账户列表失败", e);
             return ResponseEntity.badRequest()
                     .body(Result.error("获取账户列表失败: " + e.getMessage()));
         }
@@ -79,17 +95,15 @@ public class AccountController {
         }
         
         try {
-            Optional<Account> accountOpt = accountService.getAccountById(id);
+            Optional<AccountDTO> accountOpt = accountService.getAccountById(id);
             if (accountOpt.isPresent()) {
-                Account account = accountOpt.get();
-                AccountDTO accountDTO = new AccountDTO(account);
-                return ResponseEntity.ok(Result.success("获取账户成功", accountDTO));
+                return ResponseEntity.ok(Result.success("获取账户成功", accountOpt.get()));
             } else {
                 return ResponseEntity.badRequest()
                         .body(Result.error("账户不存在"));
             }
         } catch (Exception e) {
-            e.printStackTrace(); // 打印异常堆栈以便调试
+            log.warn("获取账户失败: id={}", id, e);
             return ResponseEntity.badRequest()
                     .body(Result.error("获取账户失败: " + e.getMessage()));
         }
@@ -104,8 +118,7 @@ public class AccountController {
         }
         
         try {
-            Account savedAccount = accountService.saveAccount(account);
-            AccountDTO accountDTO = new AccountDTO(savedAccount);
+            AccountDTO accountDTO = accountService.saveAccount(account);
             return ResponseEntity.ok(Result.success("保存账户成功", accountDTO));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -129,4 +142,23 @@ public class AccountController {
                     .body(Result.error("删除账户失败: " + e.getMessage()));
         }
     }
+    
+    // 解析 "字段" 或 "字段,asc|desc"，字段不在白名单内时返回 null；同值时按 id 排序保证翻页稳定
+    private Sort parseSort(String sort) {
+        String[] parts = sort.split(",");
+        String property = parts[0].trim();
+        if (!SORTABLE_FIELDS.contains(property) || parts.length > 2) {
+            return null;
+        }
+        Sort.Direction direction = Sort.Direction.ASC;
+        if (parts.length == 2) {
+            Optional<Sort.Direction> parsed = Sort.Direction.fromOptionalString(parts[1].trim());
+            if (parsed.isEmpty()) {
+                return null;
+            }
+            direction = parsed.get();
+        }
+        Sort order = Sort.by(direction, property);
+        return property.equals("id") ? order : order.and(Sort.by("id"));
+    }
 }
\ No newline at end of file
@@ -1,17 +1,27 @@
 package org.example.student.controller;
 
+import org.example.student.dto.CourseCatalog;
 import org.example.student.dto.CourseDTO;
+import org.example.student.dto.CourseSeatDTO;
+import org.example.student.dto.DeletionSummaryDTO;
 import org.example.student.entity.Course;
+import org.example.student.service.CourseEventService;
+import org.example.student.service.CourseSeatService;
 import org.example.student.service.CourseService;
 import org.example.student.service.StudentCourseService;
 import org.example.student.util.Result;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/course")
@@ -24,26 +34,80 @@ public class CourseController {
     @Autowired
     private StudentCourseService studentCourseService;
     
-    // 获取所有课程
+    @Autowired
+    private CourseSeatService courseSeatService;
+    
+    @Autowired
+    private CourseEventService courseEventService;
+    
+    // 获取所有课程，支持条件请求：If-None-Match 匹配当前目录 ETag 时返回 304，不再传输课程列表
+    // （由 WebRequest.checkNotModified 按弱比较处理，支持 W/ 前缀和逗号分隔的多个 ETag）
     @RequestMapping(value = "/list", method = {RequestMethod.GET, RequestMethod.OPTIONS})
-    public ResponseEntity<Result<List<CourseDTO>>> getAllCourses(HttpServletRequest request) {
+    public ResponseEntity<Result<List<CourseDTO>>> getAllCourses(HttpServletRequest request, WebRequest webRequest) {
         // 处理预检请求
         if (request.getMethod().equals("OPTIONS")) {
             return ResponseEntity.ok(Result.success("OK", (List<CourseDTO>) null));
         }
         
         try {
-            List<Course> courses = courseService.getAllCourses();
-            List<CourseDTO> courseDTOs = courses.stream()
-                    .map(CourseDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(Result.success("获取课程列表成功", courseDTOs));
+            CourseCatalog catalog = courseService.getCatalog();
+            // 匹配时 checkNotModified 已写入 304 状态和 ETag 响应头
+            if (webRequest.checkNotModified(catalog.getEtag())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(catalog.getEtag())
+                    .cacheControl(CacheControl.noCache())
+                    .body(Result.success("获取课程列表成功", catalog.getCourses()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Result.error("获取课程列表失败: " + e.getMessage()));
         }
     }
     
+    // 课程目录缓存统计
+    @RequestMapping(value = "/cache-stats", method = {RequestMethod.GET, RequestMethod.OPTIONS})
+    public ResponseEntity<Result<Map<String, Object>>> getCatalogStatistics(HttpServletRequest request) {
+        // 处理预检请求
+        if (request.getMethod().equals("OPTIONS")) {
+            return ResponseEntity.ok(Result.success("OK", (Map<String, Object>) null));
+        }
+        
+        return ResponseEntity.ok(Result.success("获取缓存统计成功", courseService.getCatalogStatistics()));
+    }
+    
+    // 获取所有课程的名额占用情况
+    @RequestMapping(value = "/seats", method = {RequestMethod.GET, RequestMethod.OPTIONS})
+    public ResponseEntity<Result<List<CourseSeatDTO>>> getCourseSeats(HttpServletRequest request) {
+        // 处理预检请求
+        if (request.getMethod().equals("OPTIONS")) {
+            return ResponseEntity.ok(Result.success("OK", (List<CourseSeatDTO>) null));
+        }
+        
+        try {
+            return ResponseEntity.ok(Result.success("获取课程名额成功", courseSeatService.getAllSeats()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error("获取课程名额失败: " + e.getMessage()));
+        }
+    }
+    
+    // 订阅课程名额和课程信息变化（SSE），代替轮询课程列表和选课信息；订阅数达到上限时返回 503，客户端稍后重连
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribeEvents() {
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.noStore())
+                    // 经过 Nginx 反向代理时关闭响应缓冲，事件才能立即到达浏览器
+                    .header("X-Accel-Buffering", "no")
+                    .body(courseEventService.subscribe());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+    
     // 根据ID获取课程
     @RequestMapping(value = "/{id}", method = {RequestMethod.GET, RequestMethod.OPTIONS})
     public ResponseEntity<Result<CourseDTO>> getCourseById(@PathVariable Long id, HttpServletRequest request) {
@@ -87,23 +151,27 @@ public class CourseController {
         }
     }
     
-    // 删除课程
+    // 删除课程；force=true 时连同选课记录一并删除，并扣减相应学生的总学分
     @RequestMapping(value = "/{id}", method = {RequestMethod.DELETE, RequestMethod.OPTIONS})
-    public ResponseEntity<Result<String>> deleteCourse(@PathVariable Long id, HttpServletRequest request) {
+    public ResponseEntity<Result<DeletionSummaryDTO>> deleteCourse(@PathVariable Long id,
+                                                                   @RequestParam(defaultValue = "false") boolean force,
+                                                                   HttpServletRequest request) {
         // 处理预检请求
         if (request.getMethod().equals("OPTIONS")) {
-            return ResponseEntity.ok(Result.success("OK", "Success"));
+            return ResponseEntity.ok(Result.success("OK", (DeletionSummaryDTO) null));
         }
         
         try {
             // 检查是否有学生选了这门课
-            if (studentCourseService.existsByCourseId(id)) {
+            if (!force && studentCourseService.existsByCourseId(id)) {
                 return ResponseEntity.badRequest()
                         .body(Result.error("有学生已选该课程，不能删除"));
             }
             
-            courseService.deleteCourse(id);
-            return ResponseEntity.ok(Result.success("删除课程成功"));
+            return courseService.deleteCourse(id)
+                    .map(summary -> ResponseEntity.ok(Result.success("删除课程成功", summary)))
+                    .orElseGet(() -> ResponseEntity.badRequest()
+                            .body(Result.error("课程不存在")));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Result.error("删除课程失败: " + e.getMessage()));
@@ -1,18 +1,27 @@
 package org.example.student.controller;
 
+import org.example.student.dto.DailyEnrollmentDTO;
+import org.example.student.dto.EnrollmentCountDTO;
+import org.example.student.dto.EnrollmentTotalsDTO;
 import org.example.student.dto.StudentCourseDTO;
 import org.example.student.entity.StudentCourse;
 import org.example.student.entity.Student;
 import org.example.student.entity.Course;
-import org.example.student.repository.StudentCourseRepository;
+import org.example.student.service.EnrollmentExportService;
+import org.example.student.service.EnrollmentStatisticsService;
+import org.example.student.service.StudentCourseService;
 import org.example.student.util.Result;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -20,29 +29,63 @@ import java.util.stream.Collectors;
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175", "http://localhost:5176", "http://localhost:5177", "http://localhost:5178"})
 public class EnrollmentController {
     
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final int MAX_PAGE_SIZE = 1000;
+    private static final int DEFAULT_CURSOR_PAGE_SIZE = 500;
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    
+    @Autowired
+    private StudentCourseService studentCourseService;
+    
+    @Autowired
+    private EnrollmentStatisticsService enrollmentStatisticsService;
+    
     @Autowired
-    private StudentCourseRepository studentCourseRepository;
+    private EnrollmentExportService enrollmentExportService;
     
-    // 获取所有选课信息
+    // 按主键游标分页获取选课信息：afterId 为上一页最后一条记录的ID，下一页游标通过 X-Next-Cursor 响应头返回
     @RequestMapping(value = "/all", method = {RequestMethod.GET, RequestMethod.OPTIONS})
-    public ResponseEntity<Result<List<StudentCourseDTO>>> getAllEnrollments(HttpServletRequest request) {
+    public ResponseEntity<Result<List<StudentCourseDTO>>> getAllEnrollments(@RequestParam(defaultValue = "0") long afterId,
+                                                                            @RequestParam(defaultValue = "" + DEFAULT_CURSOR_PAGE_SIZE) int size,
+                                                                            HttpServletRequest request) {
         // 处理预检请求
         if (request.getMethod().equals("OPTIONS")) {
             return ResponseEntity.ok(Result.success("OK", (List<StudentCourseDTO>) null));
         }
         
         try {
-            List<StudentCourse> enrollments = studentCourseRepository.findAll();
-            List<StudentCourseDTO> enrollmentDTOs = enrollments.stream()
-                    .map(StudentCourseDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(Result.success("获取选课信息成功", enrollmentDTOs));
+            int pageSize = Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+            List<StudentCourseDTO> enrollmentDTOs = enrollmentExportService.getPageAfter(afterId, pageSize);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (enrollmentDTOs.size() == pageSize) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(enrollmentDTOs.get(pageSize - 1).getId()));
+            }
+            return response.body(Result.success("获取选课信息成功", enrollmentDTOs));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Result.error("获取选课信息失败: " + e.getMessage()));
         }
     }
     
+    // 流式导出全部选课信息，format 取 ndjson 或 csv
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportEnrollments(@RequestParam(defaultValue = "ndjson") String format) {
+        EnrollmentExportService.Format exportFormat = "csv".equalsIgnoreCase(format)
+                ? EnrollmentExportService.Format.CSV
+                : EnrollmentExportService.Format.NDJSON;
+        MediaType contentType = exportFormat == EnrollmentExportService.Format.CSV
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : new MediaType("application", "x-ndjson", StandardCharsets.UTF_8);
+        String fileName = "enrollments." + (exportFormat == EnrollmentExportService.Format.CSV ? "csv" : "ndjson");
+        
+        StreamingResponseBody body = outputStream -> enrollmentExportService.export(exportFormat, outputStream);
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+    
     // 根据学生ID获取选课信息
     @RequestMapping(value = "/student/{studentId}", method = {RequestMethod.GET, RequestMethod.OPTIONS})
     public ResponseEntity<Result<List<StudentCourseDTO>>> getEnrollmentsByStudentId(@PathVariable Long studentId, HttpServletRequest request) {
@@ -52,10 +95,7 @@ public class EnrollmentController {
         }
         
         try {
-            List<StudentCourse> enrollments = studentCourseRepository.findByStudentId(studentId);
-            List<StudentCourseDTO> enrollmentDTOs = enrollments.stream()
-                    .map(StudentCourseDTO::new)
-                    .collect(Collectors.toList());
+            List<StudentCourseDTO> enrollmentDTOs = studentCourseService.getCoursesByStudentId(studentId);
             return ResponseEntity.ok(Result.success("获取学生选课信息成功", enrollmentDTOs));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -63,23 +103,23 @@ public class EnrollmentController {
         }
     }
     
-    // 根据课程ID获取选课信息
+    // 根据课程ID分页获取选课信息，总数通过 X-Total-Count 响应头返回
     @RequestMapping(value = "/course/{courseId}", method = {RequestMethod.GET, RequestMethod.OPTIONS})
-    public ResponseEntity<Result<List<StudentCourseDTO>>> getEnrollmentsByCourseId(@PathVariable Long courseId, HttpServletRequest request) {
+    public ResponseEntity<Result<List<StudentCourseDTO>>> getEnrollmentsByCourseId(@PathVariable Long courseId,
+                                                                                   @RequestParam(defaultValue = "0") int page,
+                                                                                   @RequestParam(defaultValue = "" + DEFAULT_PAGE_SIZE) int size,
+                                                                                   HttpServletRequest request) {
         // 处理预检请求
         if (request.getMethod().equals("OPTIONS")) {
             return ResponseEntity.ok(Result.success("OK", (List<StudentCourseDTO>) null));
         }
         
         try {
-            List<StudentCourse> enrollments = studentCourseRepository.findAll()
-                    .stream()
-                    .filter(enrollment -> enrollment.getCourse().getId().equals(courseId))
-                    .collect(Collectors.toList());
-            List<StudentCourseDTO> enrollmentDTOs = enrollments.stream()
-                    .map(StudentCourseDTO::new)
-                    .collect(Collectors.toList());
-            return ResponseEntity.ok(Result.success("获取课程选课信息成功", enrollmentDTOs));
+            Page<StudentCourseDTO> enrollments = studentCourseService.getEnrollmentsByCourseId(
+                    courseId, Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+            return ResponseEntity.ok()
+                    .header(TOTAL_COUNT_HEADER, String.valueOf(enrollments.getTotalElements()))
+                    .body(Result.success("获取课程选课信息成功", enrollments.getContent()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Result.error("获取课程选课信息失败: " + e.getMessage()));
@@ -88,35 +128,66 @@ public class EnrollmentController {
     
     // 获取选课统计信息
     @RequestMapping(value = "/statistics", method = {RequestMethod.GET, RequestMethod.OPTIONS})
-    public ResponseEntity<Result<Map<String, Object>>> getEnrollmentStatistics(HttpServletRequest request) {
+    public ResponseEntity<Result<EnrollmentTotalsDTO>> getEnrollmentStatistics(HttpServletRequest request) {
         // 处理预检请求
         if (request.getMethod().equals("OPTIONS")) {
-            return ResponseEntity.ok(Result.success("OK", (Map<String, Object>) null));
+            return ResponseEntity.ok(Result.success("OK", (EnrollmentTotalsDTO) null));
         }
         
         try {
-            List<StudentCourse> enrollments = studentCourseRepository.findAll();
-            
-            // 统计信息
-            long totalEnrollments = enrollments.size();
-            long uniqueStudents = enrollments.stream()
-                    .map(enrollment -> enrollment.getStudent().getId())
-                    .distinct()
-                    .count();
-            long uniqueCourses = enrollments.stream()
-                    .map(enrollment -> enrollment.getCourse().getId())
-                    .distinct()
-                    .count();
-            
-            Map<String, Object> statistics = new java.util.HashMap<>();
-            statistics.put("totalEnrollments", totalEnrollments);
-            statistics.put("uniqueStudents", uniqueStudents);
-            statistics.put("uniqueCourses", uniqueCourses);
-            
-            return ResponseEntity.ok(Result.success("获取统计信息成功", statistics));
+            return ResponseEntity.ok(Result.success("获取统计信息成功", enrollmentStatisticsService.getTotals()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Result.error("获取统计信息失败: " + e.getMessage()));
         }
     }
+    
+    // 按课程统计选课人数
+    @RequestMapping(value = "/statistics/course", method = {RequestMethod.GET, RequestMethod.OPTIONS})
+    public ResponseEntity<Result<List<EnrollmentCountDTO>>> getStatisticsByCourse(HttpServletRequest request) {
+        // 处理预检请求
+        if (request.getMethod().equals("OPTIONS")) {
+            return ResponseEntity.ok(Result.success("OK", (List<EnrollmentCountDTO>) null));
+        }
+        
+        try {
+            return ResponseEntity.ok(Result.success("获取课程选课统计成功", enrollmentStatisticsService.getCountsByCourse()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error("获取课程选课统计失败: " + e.getMessage()));
+        }
+    }
+    
+    // 按专业统计选课人数
+    @RequestMapping(value = "/statistics/major", method = {RequestMethod.GET, RequestMethod.OPTIONS})
+    public ResponseEntity<Result<List<EnrollmentCountDTO>>> getStatisticsByMajor(HttpServletRequest request) {
+        // 处理预检请求
+        if (request.getMethod().equals("OPTIONS")) {
+            return ResponseEntity.ok(Result.success("OK", (List<EnrollmentCountDTO>) null));
+        }
+        
+        try {
+            return ResponseEntity.ok(Result.success("获取专业选课统计成功", enrollmentStatisticsService.getCountsByMajor()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error("获取专业选课统计失败: " + e.getMessage()));
+        }
+    }
+    
+    // 按天统计最近若干天的选课数量
+    @RequestMapping(value = "/statistics/daily", method = {RequestMethod.GET, RequestMethod.OPTIONS})
+    public ResponseEntity<Result<List<DailyEnrollmentDTO>>> getDailyStatistics(@RequestParam(defaultValue = "30") int days,
+                                                                              HttpServletRequest request) {
+        // 处理预检请求
+        if (request.getMethod().equals("OPTIONS")) {
+            return ResponseEntity.ok(Result.success("OK", (List<DailyEnrollmentDTO>) null));
+        }
+        
+        try {
+            return ResponseEntity.ok(Result.success("获取每日选课统计成功", enrollmentStatisticsService.getDailyCounts(days)));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error("获取每日选课统计失败: " + e.getMessage()));
+        }
+    }
 }
\ No newline at end of file
@@ -1,11 +1,18 @@
 package org.example.student.controller;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.student.config.AuthPrincipal;
+import org.example.student.config.JwtInterceptor;
+import org.example.student.dto.AccountSummaryDTO;
 import org.example.student.dto.LoginData;
 import org.example.student.dto.LoginRequest;
 import org.example.student.entity.Account;
 import org.example.student.service.AccountService;
+import org.example.student.service.PasswordService;
 import org.example.student.util.JwtUtil;
-import org.example.student.util.PasswordEncoder;
+import org.example.student.util.LogMask;
+import org.example.student.util.PasswordPolicy;
 import org.example.student.util.Result;
 import org.springframework.beans.factory.annotation.Autowired;
 /*
@@ -18,6 +25,7 @@ import org.springframework.beans.factory.annotation.Autowired;
     *提供了丰富的静态方法来构建不同类型的响应
     *支持泛型，确保响应数据类型安全
 * */
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,6 +36,7 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
 
+@Slf4j
 @RestController
 @RequestMapping("/user")
 @CrossOrigin(origins = {"http://localhost:5173", "http://localhost:5174", "http://localhost:5175", "http://localhost:5176", "http://localhost:5177", "http://localhost:5178", "http://localhost:5179", "http://localhost:5181"})
@@ -36,6 +45,12 @@ public class LoginController {
     @Autowired
     private AccountService accountService;
 
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @PostMapping("/login")
     public ResponseEntity<Result<LoginData>> login(@RequestBody LoginRequest loginRequest, HttpServletResponse response) {
         // 添加CORS头部到响应
@@ -46,43 +61,42 @@ public class LoginController {
         String username = loginRequest.getUsername();
         String password = loginRequest.getPassword();
         
-        System.out.println("登录请求 - 用户名: " + username + ", 密码: " + password);
+        log.debug("登录请求: username={}", LogMask.mask(username));
 
         // 检查用户名和密码是否为空
         if (username == null || username.isEmpty() || password == null || password.isEmpty()) {
-            System.out.println("用户名或密码为空");
+            log.debug("登录失败: 用户名或密码为空");
+            countLogin("failure", "empty_credentials");
             return ResponseEntity.badRequest()
                     .body(Result.error("用户名和密码不能为空"));
         }
 
-        // 查找用户
-        Optional<Account> accountOptional = accountService.findByUsername(username);
+        // 查找用户（学生和专业一并取出，用于登录响应）
+        Optional<Account> accountOptional = accountService.findByUsernameWithStudent(username);
         if (accountOptional.isEmpty()) {
-            System.out.println("用户不存在: " + username);
+            log.info("登录失败: 用户不存在, username={}", LogMask.mask(username));
+            countLogin("failure", "user_not_found");
             return ResponseEntity.badRequest()
                     .body(Result.error("用户不存在"));
         }
 
         Account account = accountOptional.get();
-        System.out.println("数据库中的密码: " + account.getPassword());
-        System.out.println("输入的密码加密后: " + PasswordEncoder.encode(password));
-
-        // 验证密码 - 支持明文和加密两种方式
-        boolean passwordMatches = false;
-        // 检查是否为加密密码（MD5值为32位十六进制字符串）
-        if (account.getPassword().matches("[0-9a-fA-F]{32}")) {
-            // 加密密码验证
-            passwordMatches = PasswordEncoder.matches(password, account.getPassword());
-            System.out.println("使用加密密码验证，结果: " + passwordMatches);
-        } else {
-            // 明文密码验证
-            passwordMatches = password.equals(account.getPassword());
-            System.out.println("使用明文密码验证，结果: " + passwordMatches);
-        }
 
+        // 验证密码 - 兼容 PBKDF2、历史 MD5 和明文，旧格式在验证通过后自动升级
+        boolean passwordMatches;
+        try {
+            passwordMatches = accountService.verifyPassword(account, password);
+        } catch (IllegalStateException e) {
+            // 哈希线程池已满，快速失败让客户端稍后重试
+            log.warn("登录验证繁忙: {}", e.getMessage());
+            countLogin("failure", "busy");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .body(Result.error(HttpStatus.SERVICE_UNAVAILABLE.value(), e.getMessage()));
+        }
         // 验证密码
         if (!passwordMatches) {
-            System.out.println("密码错误 - 用户名: " + username);
+            log.info("登录失败: 密码错误, username={}", LogMask.mask(username));
+            countLogin("failure", "bad_password");
             return ResponseEntity.badRequest()
                     .body(Result.error("密码错误"));
         }
@@ -95,34 +109,34 @@ public class LoginController {
     
         // 创建成功响应
         Result<LoginData> result = Result.success("登录成功", loginData);
-        System.out.println("登录成功，返回数据: " + result);
+        log.debug("登录成功: username={}, role={}", LogMask.mask(username), account.getRole());
+        countLogin("success", "none");
 
         // 返回成功响应
         return ResponseEntity.ok(result);
     }
     
+    // 登录次数，按结果和失败原因区分
+    private void countLogin(String result, String reason) {
+        meterRegistry.counter("auth.logins", "result", result, "reason", reason).increment();
+    }
+    
     // 注意：这个方法现在受到JWT拦截器保护，只有携带有效token的请求才能访问
     @GetMapping("/info")
-    public ResponseEntity<Result<Account>> getUserInfo(@RequestHeader("Authorization") String authHeader) {
+    public ResponseEntity<Result<AccountSummaryDTO>> getUserInfo(@RequestAttribute(JwtInterceptor.PRINCIPAL_ATTRIBUTE) AuthPrincipal principal) {
         try {
-            // 从 Authorization 头中提取 token
-            String token = authHeader.replace("Bearer ", "");
-            
-            // 从 token 中获取用户名
-            String username = JwtUtil.getUsernameFromToken(token);
+            // 拦截器已验证 token，直接使用其中的用户名
+            String username = principal.getUsername();
             
             // 查找用户
-            Optional<Account> accountOptional = accountService.findByUsername(username);
-            if (accountOptional.isEmpty()) {
+            // 直接查询为 DTO，不加载实体，也不会读出密码
+            Optional<AccountSummaryDTO> account = accountService.getAccountSummary(username);
+            if (account.isEmpty()) {
                 return ResponseEntity.badRequest()
                         .body(Result.error("用户不存在"));
             }
             
-            Account account = accountOptional.get();
-            // 清除密码字段，不返回给前端
-            account.setPassword(null);
-            
-            return ResponseEntity.ok(Result.success("获取用户信息成功", account));
+            return ResponseEntity.ok(Result.success("获取用户信息成功", account.get()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Result.error("获取用户信息失败: " + e.getMessage()));
@@ -132,15 +146,15 @@ public class LoginController {
     // 修改密码接口
     @RequestMapping(value = "/change-password", method = {RequestMethod.POST, RequestMethod.OPTIONS})
     public ResponseEntity<Result<Map<String, Object>>> changePassword(//外层是 Result 对象，用于封装统一响应格式，内层是 Map<String, Object>，作为 Result 中的 data 数据
-            @RequestHeader(value = "Authorization", required = false) String authHeader,
+            @RequestAttribute(value = JwtInterceptor.PRINCIPAL_ATTRIBUTE, required = false) AuthPrincipal principal,
             @RequestBody(required = false) Map<String, String> passwordChangeRequest,
             HttpServletRequest request) {
         /*
-        * 1. @RequestHeader("Authorization")
-        这是一个请求头绑定注解，用于从 HTTP 请求头中提取指定字段的值。
+        * 1. @RequestAttribute(JwtInterceptor.PRINCIPAL_ATTRIBUTE)
+        这是一个请求属性绑定注解，用于读取拦截器放入请求中的属性。
         作用：
-        从客户端发送的 HTTP 请求头中获取 "Authorization" 字段的值
-        将该值绑定到方法参数 authHeader 上
+        JwtInterceptor 验证 Authorization 头中的 token 后，把当前用户放入请求属性
+        将该属性绑定到方法参数 principal 上，控制器无需再次解析 token
         * 2. @RequestBody
         这是一个请求体绑定注解，用于将 HTTP 请求体中的 JSON 数据绑定到 Java 对象。
         作用：
@@ -155,11 +169,8 @@ public class LoginController {
         }
 
         try {
-            // 从 Authorization 头中提取 token
-            String token = authHeader.replace("Bearer ", "");
-            
-            // 从 token 中获取用户名
-            String username = JwtUtil.getUsernameFromToken(token);
+            // 拦截器已验证 token，直接使用其中的用户名
+            String username = principal.getUsername();
             
             // 获取请求参数
             String currentPassword = passwordChangeRequest.get("currentPassword");
@@ -182,19 +193,19 @@ public class LoginController {
             Account account = accountOptional.get();
             
             // 验证当前密码
-            if (!PasswordEncoder.matches(currentPassword, account.getPassword())) {
+            if (!passwordService.matches(currentPassword, account.getPassword())) {
                 return ResponseEntity.badRequest()
                         .body(Result.error("当前密码错误"));
             }
             
             // 验证新密码复杂度
-            if (!isValidPassword(newPassword)) {
+            if (!PasswordPolicy.isValid(newPassword)) {
                 return ResponseEntity.badRequest()
-                        .body(Result.error("密码必须包含数字、字母、特殊字符，且长度大于7位"));
+                        .body(Result.error(PasswordPolicy.REQUIREMENT));
             }
             
             // 更新密码
-            account.setPassword(PasswordEncoder.encode(newPassword));
+            account.setPassword(passwordService.encode(newPassword));
             account.setFirstLogin(false); // 设置为非首次登录
             accountService.save(account);
             
@@ -218,29 +229,4 @@ public class LoginController {
         // 退出登录不需要特殊处理，前端清除token即可
         return ResponseEntity.ok(Result.success("退出登录成功"));
     }
-    
-    // 验证密码复杂度
-    private boolean isValidPassword(String password) {
-        // 检查密码长度
-        if (password.length() <= 7) {
-            return false;
-        }
-        
-        // 检查是否包含数字
-        if (!password.matches(".*\\d.*")) {
-            return false;
-        }
-        
-        // 检查是否包含字母
-        if (!password.matches(".*[a-zA-Z].*")) {
-            return false;
-        }
-        
-        // 检查是否包含特殊字符
-        if (!password.matches(".*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?].*")) {
-            return false;
-        }
-        
-        return true;
-    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.example.student.controller;
 
+import org.example.student.dto.DeletionSummaryDTO;
 import org.example.student.dto.MajorDTO;
 import org.example.student.entity.Major;
 import org.example.student.service.StudentService;
@@ -77,23 +78,27 @@ public class MajorController {
         }
     }
     
-    // 删除专业
+    // 删除专业；force=true 时连同该专业的学生、账号和选课记录一并删除
     @RequestMapping(value = "/{id}", method = {RequestMethod.DELETE, RequestMethod.OPTIONS})
-    public ResponseEntity<Result<String>> deleteMajor(@PathVariable Long id, HttpServletRequest request) {
+    public ResponseEntity<Result<DeletionSummaryDTO>> deleteMajor(@PathVariable Long id,
+                                                                  @RequestParam(defaultValue = "false") boolean force,
+                                                                  HttpServletRequest request) {
         // 处理预检请求
         if (request.getMethod().equals("OPTIONS")) {
-            return ResponseEntity.ok(Result.success("OK", "Success"));
+            return ResponseEntity.ok(Result.success("OK", (DeletionSummaryDTO) null));
         }
         
         try {
             // 检查是否有学生属于这个专业
-            if (studentService.hasStudentsInMajor(id)) {
+            if (!force && studentService.hasStudentsInMajor(id)) {
                 return ResponseEntity.badRequest()
                         .body(Result.error("有学生属于该专业，不能删除"));
             }
             
-            studentService.deleteMajor(id);
-            return ResponseEntity.ok(Result.success("删除专业成功"));
+            return studentService.deleteMajor(id)
+                    .map(summary -> ResponseEntity.ok(Result.success("删除专业成功", summary)))
+                    .orElseGet(() -> ResponseEntity.badRequest()
+                            .body(Result.error("专业不存在")));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Result.error("删除专业失败: " + e.getMessage()));
@@ -1,18 +1,33 @@
 package org.example.student.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.student.config.AuthPrincipal;
+import org.example.student.config.JwtInterceptor;
 import org.example.student.dto.LoginRequest;
+import org.example.student.dto.MajorDTO;
 import org.example.student.dto.StudentRegisterRequest;
+import org.example.student.dto.StudentImportEvent;
 import org.example.student.dto.StudentRegisterResponse;
 import org.example.student.entity.Account;
-import org.example.student.entity.Major;
 import org.example.student.service.AccountService;
+import org.example.student.service.StudentImportService;
 import org.example.student.service.StudentService;
 import org.example.student.util.Result;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/user")
@@ -24,25 +39,113 @@ public class RegisterContoller {
     @Autowired
     private StudentService studentService;
     
+    @Autowired
+    private StudentImportService studentImportService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     @PostMapping("/student/register")
     public ResponseEntity<Result<StudentRegisterResponse>> studentRegister(@RequestBody StudentRegisterRequest registerRequest) {
         try {
             StudentRegisterResponse response = studentService.registerStudent(registerRequest);
+            countRegistrations("single", "success", 1);
             return ResponseEntity.ok(Result.success(response));
         } catch (Exception e) {
+            countRegistrations("single", "failure", 1);
             return ResponseEntity.badRequest()
                     .body(Result.error("注册失败: " + e.getMessage()));
         }
     }
     
+    /*
+     * 批量导入学生：请求体为 CSV（format=csv，首行表头）或 NDJSON（format=ndjson），边读边处理。
+     * 响应为 NDJSON：每个失败行一条 error，每处理完一块一条 progress，最后一条 done 汇总；
+     * 导入中途因异常停止时最后一条为 aborted（此前完成的块已经提交）。
+     * 导入在 StreamingResponseBody 中执行，不占用请求线程，与 /enrollment/export 相同。
+     * 仅管理员可用；权限、格式和 CSV 表头错误在开始导入前以普通的 Result 响应返回。
+     */
+    @RequestMapping(value = "/student/import", method = {RequestMethod.POST, RequestMethod.OPTIONS})
+    public ResponseEntity<?> importStudents(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestAttribute(value = JwtInterceptor.PRINCIPAL_ATTRIBUTE, required = false) AuthPrincipal principal,
+            HttpServletRequest request) {
+        // 处理预检请求
+        if (request.getMethod().equals("OPTIONS")) {
+            return ResponseEntity.ok(Result.success("OK", "Success"));
+        }
+        if (principal == null || !Account.Role.ADMIN.name().equals(principal.getRole())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Result.error(403, "只有管理员可以批量导入学生"));
+        }
+        
+        StudentImportService.Format importFormat;
+        try {
+            importFormat = StudentImportService.Format.valueOf(format.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Result.error("不支持的导入格式: " + format));
+        }
+        
+        // CSV 表头在提交响应之前读取和校验，不合法时返回 400 而不是以 aborted 事件结束的 200
+        StudentImportService.Source source;
+        try {
+            source = studentImportService.open(importFormat, request.getInputStream());
+        } catch (IllegalArgumentException | IOException e) {
+            return ResponseEntity.badRequest().body(Result.error("批量导入失败: " + e.getMessage()));
+        }
+        
+        StreamingResponseBody body = outputStream -> {
+            // 逐条写出并及时刷新，客户端可以实时看到进度
+            Consumer<StudentImportEvent> writeEvent = event -> {
+                try {
+                    outputStream.write(objectMapper.writeValueAsBytes(event));
+                    outputStream.write('\n');
+                    if (!"error".equals(event.getType())) {
+                        outputStream.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            try {
+                StudentImportEvent summary = studentImportService.importStudents(source, writeEvent);
+                countRegistrations("import", "success", summary.getImported());
+                countRegistrations("import", "failure", summary.getFailed());
+                writeEvent.accept(summary);
+            } catch (UncheckedIOException e) {
+                // 客户端已断开，不再写出
+                throw e.getCause();
+            } catch (Exception e) {
+                // 响应状态已经发出，中断只能作为最后一条事件告知客户端
+                writeEvent.accept(StudentImportEvent.aborted("批量导入中断: " + e.getMessage()));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(new MediaType("application", "x-ndjson", StandardCharsets.UTF_8))
+                .body(body);
+    }
+    
     @GetMapping("/major/list")
-    public ResponseEntity<Result<List<Major>>> listMajors() {
+    public ResponseEntity<Result<List<MajorDTO>>> listMajors() {
         try {
-            List<Major> majors = studentService.getAllMajors();
+            // 注册页面不需登录即可访问，只返回专业本身的字段，不序列化实体（否则会沿 students 加载整个学生名单）
+            List<MajorDTO> majors = studentService.getAllMajors().stream()
+                    .map(MajorDTO::new)
+                    .collect(Collectors.toList());
             return ResponseEntity.ok(Result.success("获取专业列表成功", majors));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
                     .body(Result.error("获取专业列表失败: " + e.getMessage()));
         }
     }
+    
+    // 学生注册人数，按来源（单个注册/批量导入）和结果区分
+    private void countRegistrations(String source, String result, long amount) {
+        if (amount > 0) {
+            meterRegistry.counter("student.registrations", "source", source, "result", result).increment(amount);
+        }
+    }
 }
\ No newline at end of file
@@ -1,5 +1,7 @@
 package org.example.student.controller;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.student.dto.EnrollmentItemResult;
 import org.example.student.dto.StudentCourseDTO;
 import org.example.student.entity.StudentCourse;
 import org.example.student.entity.Course;
@@ -21,6 +23,9 @@ public class StudentCourseController {
     @Autowired
     private StudentCourseService studentCourseService;
     
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
     // 获取学生已选课程
     @RequestMapping(value = "/selected/{studentId}", method = {RequestMethod.GET, RequestMethod.OPTIONS})
     public ResponseEntity<Result<List<StudentCourseDTO>>> getSelectedCourses(@PathVariable Long studentId, HttpServletRequest request) {
@@ -30,10 +35,7 @@ public class StudentCourseController {
         }
         
         try {
-            List<StudentCourse> courses = studentCourseService.getCoursesByStudentId(studentId);
-            List<StudentCourseDTO> courseDTOs = courses.stream()
-                    .map(StudentCourseDTO::new)
-                    .collect(Collectors.toList());
+            List<StudentCourseDTO> courseDTOs = studentCourseService.getCoursesByStudentId(studentId);
             return ResponseEntity.ok(Result.success("获取已选课程成功", courseDTOs));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
@@ -51,6 +53,7 @@ public class StudentCourseController {
         
         try {
             boolean success = studentCourseService.selectCourse(studentId, courseId);
+            countEnrollment("select", success ? "success" : "rejected", 1);
             if (success) {
                 return ResponseEntity.ok(Result.success("选课成功"));
             } else {
@@ -58,6 +61,7 @@ public class StudentCourseController {
                         .body(Result.error("选课失败，可能已选过该课程或数据不存在"));
             }
         } catch (Exception e) {
+            countEnrollment("select", "error", 1);
             return ResponseEntity.badRequest()
                     .body(Result.error("选课失败: " + e.getMessage()));
         }
@@ -73,6 +77,7 @@ public class StudentCourseController {
         
         try {
             boolean success = studentCourseService.dropCourse(studentId, courseId);
+            countEnrollment("drop", success ? "success" : "rejected", 1);
             if (success) {
                 return ResponseEntity.ok(Result.success("退课成功"));
             } else {
@@ -80,11 +85,56 @@ public class StudentCourseController {
                         .body(Result.error("退课失败，可能未选过该课程"));
             }
         } catch (Exception e) {
+            countEnrollment("drop", "error", 1);
             return ResponseEntity.badRequest()
                     .body(Result.error("退课失败: " + e.getMessage()));
         }
     }
     
+    // 批量选课，请求体为课程ID列表，返回每门课程的处理结果
+    @RequestMapping(value = "/select/batch", method = {RequestMethod.POST, RequestMethod.OPTIONS})
+    public ResponseEntity<Result<List<EnrollmentItemResult>>> selectCourses(@RequestParam Long studentId,
+                                                                           @RequestBody(required = false) List<Long> courseIds,
+                                                                           HttpServletRequest request) {
+        // 处理预检请求
+        if (request.getMethod().equals("OPTIONS")) {
+            return ResponseEntity.ok(Result.success("OK", (List<EnrollmentItemResult>) null));
+        }
+        
+        try {
+            List<EnrollmentItemResult> results = studentCourseService.selectCourses(studentId, courseIds);
+            long succeeded = results.stream().filter(EnrollmentItemResult::isSuccess).count();
+            countEnrollment("select", "success", succeeded);
+            countEnrollment("select", "rejected", results.size() - succeeded);
+            return ResponseEntity.ok(Result.success("批量选课完成，成功" + succeeded + "门", results));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error("批量选课失败: " + e.getMessage()));
+        }
+    }
+    
+    // 批量退课，请求体为课程ID列表，返回每门课程的处理结果
+    @RequestMapping(value = "/drop/batch", method = {RequestMethod.DELETE, RequestMethod.OPTIONS})
+    public ResponseEntity<Result<List<EnrollmentItemResult>>> dropCourses(@RequestParam Long studentId,
+                                                                         @RequestBody(required = false) List<Long> courseIds,
+                                                                         HttpServletRequest request) {
+        // 处理预检请求
+        if (request.getMethod().equals("OPTIONS")) {
+            return ResponseEntity.ok(Result.success("OK", (List<EnrollmentItemResult>) null));
+        }
+        
+        try {
+            List<EnrollmentItemResult> results = studentCourseService.dropCourses(studentId, courseIds);
+            long succeeded = results.stream().filter(EnrollmentItemResult::isSuccess).count();
+            countEnrollment("drop", "success", succeeded);
+            countEnrollment("drop", "rejected", results.size() - succeeded);
+            return ResponseEntity.ok(Result.success("批量退课完成，成功" + succeeded + "门", results));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest()
+                    .body(Result.error("批量退课失败: " + e.getMessage()));
+        }
+    }
+    
     // 获取学生已选课程总学分
     @RequestMapping(value = "/credits/{studentId}", method = {RequestMethod.GET, RequestMethod.OPTIONS})
     public ResponseEntity<Result<Double>> getTotalCredits(@PathVariable Long studentId, HttpServletRequest request) {
@@ -101,4 +151,11 @@ public class StudentCourseController {
                     .body(Result.error("获取总学分失败: " + e.getMessage()));
         }
     }
+    
+    // 选课/退课次数（批量接口按课程计数），按操作和结果区分
+    private void countEnrollment(String operation, String result, long amount) {
+        if (amount > 0) {
+            meterRegistry.counter("enrollment.operations", "operation", operation, "result", result).increment(amount);
+        }
+    }
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package org.example.student.dto;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import org.example.student.entity.Account;
 import org.example.student.entity.Student;
 import org.example.student.entity.Major;
@@ -9,6 +10,8 @@ import java.time.LocalDateTime;
 public class AccountDTO {
     private Long id;
     private String username;
+    // 只用于接收请求，不会出现在响应中
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
     private Account.Role role;
     private Boolean firstLogin;
@@ -0,0 +1,58 @@
+package org.example.student.dto;
+
+import lombok.Data;
+import org.example.student.entity.Account;
+import org.example.student.entity.Student;
+
+import java.time.LocalDateTime;
+
+/**
+ * 账户列表项：由 JPQL 构造表达式直接投影，不加载实体和关联对象，也不包含密码。
+ * 登录响应中的用户信息也使用这一结构，与 /user/info 返回的字段一致
+ */
+@Data
+public class AccountSummaryDTO {
+    private Long id;
+    private String username;
+    private Account.Role role;
+    private Boolean firstLogin;
+    private LocalDateTime createdTime;
+    private LocalDateTime updatedTime;
+    // 未关联学生时为 null
+    private StudentSummary student;
+
+    public AccountSummaryDTO(Long id, String username, Account.Role role, Boolean firstLogin,
+                             LocalDateTime createdTime, LocalDateTime updatedTime,
+                             Long studentPk, String studentId, String studentName, String phone, String majorName) {
+        this.id = id;
+        this.username = username;
+        this.role = role;
+        this.firstLogin = firstLogin;
+        this.createdTime = createdTime;
+        this.updatedTime = updatedTime;
+        if (studentPk != null) {
+            this.student = new StudentSummary(studentPk, studentId, studentName, phone, majorName);
+        }
+    }
+
+    // 由已取出学生和专业的账户实体创建（登录时使用）
+    public static AccountSummaryDTO from(Account account) {
+        Student student = account.getStudent();
+        if (student == null) {
+            return new AccountSummaryDTO(account.getId(), account.getUsername(), account.getRole(), account.getFirstLogin(),
+                    account.getCreatedTime(), account.getUpdatedTime(), null, null, null, null, null);
+        }
+        return new AccountSummaryDTO(account.getId(), account.getUsername(), account.getRole(), account.getFirstLogin(),
+                account.getCreatedTime(), account.getUpdatedTime(), student.getId(), student.getStudentId(),
+                student.getName(), student.getPhone(), student.getMajor() == null ? null : student.getMajor().getMajorName());
+    }
+
+    @Data
+    public static class StudentSummary {
+        private final Long id;
+        private final String studentId;
+        private final String name;
+        private final String phone;
+        private final String majorName;
+    }
+}
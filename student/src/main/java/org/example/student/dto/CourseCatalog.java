@@ -0,0 +1,24 @@
+package org.example.student.dto;
+
+import java.util.List;
+
+/**
+ * 课程目录快照：预先映射好的课程列表及其内容摘要（ETag），创建后不可变
+ */
+public class CourseCatalog {
+    private final List<CourseDTO> courses;
+    private final String etag;
+
+    public CourseCatalog(List<CourseDTO> courses, String etag) {
+        this.courses = List.copyOf(courses);
+        this.etag = etag;
+    }
+
+    public List<CourseDTO> getCourses() {
+        return courses;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+}
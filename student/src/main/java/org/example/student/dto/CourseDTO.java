@@ -11,6 +11,7 @@ public class CourseDTO {
     private String courseName;
     private String description;
     private BigDecimal credits;
+    private Integer capacity;
     private LocalDateTime createdTime;
     private LocalDateTime updatedTime;
 
@@ -22,6 +23,7 @@ public class CourseDTO {
         this.courseName = course.getCourseName();
         this.description = course.getDescription();
         this.credits = course.getCredits();
+        this.capacity = course.getCapacity();
         this.createdTime = course.getCreatedTime();
         this.updatedTime = course.getUpdatedTime();
     }
@@ -67,6 +69,14 @@ public class CourseDTO {
         this.credits = credits;
     }
 
+    public Integer getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(Integer capacity) {
+        this.capacity = capacity;
+    }
+
     public LocalDateTime getCreatedTime() {
         return createdTime;
     }
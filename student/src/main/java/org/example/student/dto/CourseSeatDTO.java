@@ -0,0 +1,25 @@
+package org.example.student.dto;
+
+import lombok.Data;
+
+/**
+ * 课程名额信息：容量为 null 表示不限人数
+ */
+@Data
+public class CourseSeatDTO {
+    private Long courseId;
+    private Integer capacity;
+    private int selectedCount;
+
+    public CourseSeatDTO() {}
+
+    public CourseSeatDTO(Long courseId, Integer capacity, Integer selectedCount) {
+        this.courseId = courseId;
+        this.capacity = capacity;
+        this.selectedCount = selectedCount != null ? selectedCount : 0;
+    }
+
+    public Integer getRemaining() {
+        return capacity == null ? null : Math.max(capacity - selectedCount, 0);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.student.dto;
+
+import lombok.Data;
+
+import java.time.LocalDate;
+
+/**
+ * 按天统计的选课数量
+ */
+@Data
+public class DailyEnrollmentDTO {
+    private LocalDate date;
+    private long enrollments;
+
+    public DailyEnrollmentDTO() {}
+
+    public DailyEnrollmentDTO(LocalDate date, Long enrollments) {
+        this.date = date;
+        this.enrollments = enrollments != null ? enrollments : 0;
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.student.dto;
+
+import lombok.Data;
+
+/**
+ * 级联删除的结果：一并删除的学生、账号和选课记录数，以及执行的分段数
+ */
+@Data
+public class DeletionSummaryDTO {
+    private long students;
+    private long accounts;
+    private long selections;
+    private int chunks;
+}
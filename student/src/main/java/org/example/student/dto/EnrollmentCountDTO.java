@@ -0,0 +1,23 @@
+package org.example.student.dto;
+
+import lombok.Data;
+
+/**
+ * 分组选课人数统计（按课程或按专业）
+ */
+@Data
+public class EnrollmentCountDTO {
+    private Long id;
+    private String name;
+    private long enrollments;
+    private long students;
+
+    public EnrollmentCountDTO() {}
+
+    public EnrollmentCountDTO(Long id, String name, Long enrollments, Long students) {
+        this.id = id;
+        this.name = name;
+        this.enrollments = enrollments != null ? enrollments : 0;
+        this.students = students != null ? students : 0;
+    }
+}
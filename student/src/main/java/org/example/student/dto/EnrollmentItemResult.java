@@ -0,0 +1,29 @@
+package org.example.student.dto;
+
+import lombok.Data;
+
+/**
+ * 批量选课/退课中单门课程的处理结果
+ */
+@Data
+public class EnrollmentItemResult {
+    private Long courseId;
+    private boolean success;
+    private String message;
+
+    public EnrollmentItemResult() {}
+
+    public EnrollmentItemResult(Long courseId, boolean success, String message) {
+        this.courseId = courseId;
+        this.success = success;
+        this.message = message;
+    }
+
+    public static EnrollmentItemResult ok(Long courseId, String message) {
+        return new EnrollmentItemResult(courseId, true, message);
+    }
+
+    public static EnrollmentItemResult fail(Long courseId, String message) {
+        return new EnrollmentItemResult(courseId, false, message);
+    }
+}
@@ -0,0 +1,21 @@
+package org.example.student.dto;
+
+import lombok.Data;
+
+/**
+ * 选课总体统计：总选课数、选课学生数、被选课程数
+ */
+@Data
+public class EnrollmentTotalsDTO {
+    private long totalEnrollments;
+    private long uniqueStudents;
+    private long uniqueCourses;
+
+    public EnrollmentTotalsDTO() {}
+
+    public EnrollmentTotalsDTO(Long totalEnrollments, Long uniqueStudents, Long uniqueCourses) {
+        this.totalEnrollments = totalEnrollments != null ? totalEnrollments : 0;
+        this.uniqueStudents = uniqueStudents != null ? uniqueStudents : 0;
+        this.uniqueCourses = uniqueCourses != null ? uniqueCourses : 0;
+    }
+}
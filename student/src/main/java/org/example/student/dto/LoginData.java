@@ -6,10 +6,11 @@ import org.example.student.entity.Account;
 @Data
 public class LoginData {
     private String token;
-    private AccountDTO user;
+    // 与 /user/info 返回的结构相同
+    private AccountSummaryDTO user;
     
     public LoginData(String token, Account account) {
         this.token = token;
-        this.user = AccountDTO.from(account);
+        this.user = AccountSummaryDTO.from(account);
     }
 }
\ No newline at end of file
@@ -0,0 +1,48 @@
+package org.example.student.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Data;
+
+/**
+ * 批量导入学生时按行输出的事件（NDJSON 的一行）：
+ * error 为某一行导入失败，progress 为每处理完一块后的进度，done 为导入结束时的汇总，
+ * aborted 为导入因异常中断（此前已完成的块不会回滚）
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class StudentImportEvent {
+    private String type;
+    private Long line;
+    private String message;
+    private Long processed;
+    private Long imported;
+    private Long failed;
+    private Long elapsedMillis;
+
+    public StudentImportEvent() {}
+
+    public static StudentImportEvent error(long line, String message) {
+        StudentImportEvent event = new StudentImportEvent();
+        event.type = "error";
+        event.line = line;
+        event.message = message;
+        return event;
+    }
+
+    public static StudentImportEvent aborted(String message) {
+        StudentImportEvent event = new StudentImportEvent();
+        event.type = "aborted";
+        event.message = message;
+        return event;
+    }
+
+    public static StudentImportEvent progress(String type, long processed, long imported, long failed, long elapsedMillis) {
+        StudentImportEvent event = new StudentImportEvent();
+        event.type = type;
+        event.processed = processed;
+        event.imported = imported;
+        event.failed = failed;
+        event.elapsedMillis = elapsedMillis;
+        return event;
+    }
+}
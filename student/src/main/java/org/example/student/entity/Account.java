@@ -19,7 +19,7 @@ public class Account {
     private String username;
 
     @Column(nullable = false, length = 255)
-    private String password;  // MD5 密文
+    private String password;  // PBKDF2 密文（兼容历史 MD5 密文）
 
     @Enumerated(EnumType.STRING)        //把枚举按字符串保存
     @Column(nullable = false, length = 10)
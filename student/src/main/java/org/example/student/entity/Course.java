@@ -2,6 +2,8 @@ package org.example.student.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -30,14 +32,24 @@ public class Course {
     @Column(nullable = false, precision = 3, scale = 1)
     private BigDecimal credits;
 
+    /* 课程容量，null 表示不限人数 */
+    @Column
+    private Integer capacity;
+
+    /* 已选人数，只通过 CourseRepository 的条件更新语句维护，保存课程信息时不会覆盖 */
+    @Column(name = "selected_count", nullable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer selectedCount = 0;
+
     @Column(name = "created_time", updatable = false, nullable = false)
     private LocalDateTime createdTime;
 
     @Column(name = "updated_time", nullable = false)
     private LocalDateTime updatedTime;
 
-    /* 一对多：一门课被多名学生选修 */
-    @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    /* 一对多：一门课被多名学生选修。不做级联，删除课程由 BulkDeletionService 分段批量删除选课记录 */
+    @OneToMany(mappedBy = "course", fetch = FetchType.LAZY)
     @Builder.Default
     private List<StudentCourse> selections = new ArrayList<>();
 
@@ -34,8 +34,8 @@ public class Major {
     @Column(name = "updated_time", nullable = false)
     private LocalDateTime updatedTime;
 
-    /* 一对多：一个专业包含多个学生 */
-    @OneToMany(mappedBy = "major", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    /* 一对多：一个专业包含多个学生。不做级联，删除专业由 BulkDeletionService 分段批量删除学生 */
+    @OneToMany(mappedBy = "major", fetch = FetchType.LAZY)
     @Builder.Default
     private List<Student> students = new ArrayList<>();
 
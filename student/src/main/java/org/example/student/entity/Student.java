@@ -2,15 +2,20 @@ package org.example.student.entity;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "student")
+@Table(name = "student",
+        // 按专业、入学日期筛选学生时使用，同时作为 major_id 外键的索引
+        indexes = @Index(name = "idx_student_major_enrollment", columnList = "major_id, enrollment_date"))
 @Data
-@ToString(exclude = {"major", "selections", "account"}) // 排除引起循环引用的字段
+@ToString(exclude = {"major", "selections"}) // 排除引起循环引用的字段
 @NoArgsConstructor @AllArgsConstructor @Builder
 public class Student {
 
@@ -36,6 +41,12 @@ public class Student {
     @Column(name = "sequence_number", nullable = false)
     private Integer sequenceNumber;
 
+    /* 已选课程总学分，只通过 StudentRepository 的更新语句随选课、退课和课程学分变更维护，保存学生信息时不会覆盖 */
+    @Column(name = "total_credits", nullable = false, updatable = false, precision = 5, scale = 1)
+    @ColumnDefault("0")
+    @Builder.Default
+    private BigDecimal totalCredits = BigDecimal.ZERO;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "major_id", nullable = false,
             foreignKey = @ForeignKey(name = "fk_student_major"))    //major_id外键约束
@@ -63,10 +74,8 @@ public class Student {
     @Builder.Default
     private List<StudentCourse> selections = new ArrayList<>();
 
-    /* 一对一：账号信息 */
-    @OneToOne(mappedBy = "student", cascade = CascadeType.ALL,
-            fetch = FetchType.LAZY, optional = true)
-    private Account account;
+    /* 账号信息只由 Account.student（拥有外键 account.student_id）单向映射，需要时通过 LoginRepository 按学生查询。
+    反向的可选一对一无法生成代理，即使声明 LAZY，每加载一个学生也会额外查询一次 account 表 */
 
     @PrePersist
     protected void onCreate() {
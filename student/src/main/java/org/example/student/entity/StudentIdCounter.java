@@ -0,0 +1,34 @@
+package org.example.student.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+/**
+ * 学号序号计数器：每个（专业, 入学年份）一行，记录下一个尚未分配的序号。
+ * 由 StudentIdAllocator 按段取号，学号生成不再扫描 student 表。
+ */
+@Entity
+@Table(name = "student_id_counter")
+@Data
+@NoArgsConstructor @AllArgsConstructor
+public class StudentIdCounter {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "next_value", nullable = false)
+    private Integer nextValue;
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor @AllArgsConstructor
+    public static class Key implements Serializable {
+        @Column(name = "major_id", nullable = false)
+        private Long majorId;
+
+        @Column(name = "enrollment_year", nullable = false)
+        private Integer enrollmentYear;
+    }
+}
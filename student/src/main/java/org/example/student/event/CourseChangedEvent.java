@@ -0,0 +1,35 @@
+package org.example.student.event;
+
+import lombok.Getter;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 课程名额或课程信息发生变化
+ *
+ * 由选课、退课和课程维护在事务内发布，事务提交后由 CourseEventService 按课程合并，再推送给订阅者；
+ * 事务回滚时不会推送。
+ */
+@Getter
+public class CourseChangedEvent {
+
+    private final Collection<Long> courseIds;
+    // 课程信息（名称、学分、容量等）本身有变化，订阅方需要重新拉取课程目录
+    private final boolean catalogChanged;
+
+    private CourseChangedEvent(Collection<Long> courseIds, boolean catalogChanged) {
+        this.courseIds = courseIds;
+        this.catalogChanged = catalogChanged;
+    }
+
+    // 选课、退课导致已选人数变化
+    public static CourseChangedEvent seats(Collection<Long> courseIds) {
+        return new CourseChangedEvent(List.copyOf(courseIds), false);
+    }
+
+    // 课程新增、修改或删除
+    public static CourseChangedEvent catalog(Long courseId) {
+        return new CourseChangedEvent(List.of(courseId), true);
+    }
+}
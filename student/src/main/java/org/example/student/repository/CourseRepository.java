@@ -1,12 +1,57 @@
 package org.example.student.repository;
 
+import org.example.student.dto.CourseSeatDTO;
 import org.example.student.entity.Course;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
     Optional<Course> findByCourseCode(String courseCode);
-}
\ No newline at end of file
+    
+    @Query("SELECT c.credits FROM Course c WHERE c.id = :courseId")
+    BigDecimal findCreditsById(Long courseId);
+    
+    @Query("SELECT new org.example.student.dto.CourseSeatDTO(c.id, c.capacity, c.selectedCount) FROM Course c WHERE c.id = :courseId")
+    Optional<CourseSeatDTO> findSeatsById(Long courseId);
+    
+    @Query("SELECT new org.example.student.dto.CourseSeatDTO(c.id, c.capacity, c.selectedCount) FROM Course c")
+    List<CourseSeatDTO> findAllSeats();
+    
+    @Query("SELECT new org.example.student.dto.CourseSeatDTO(c.id, c.capacity, c.selectedCount) FROM Course c WHERE c.id IN :courseIds")
+    List<CourseSeatDTO> findSeatsByIdIn(Collection<Long> courseIds);
+    
+    // 条件更新占用一个名额，课程已满时影响行数为 0，由数据库保证不会超卖
+    @Modifying
+    @Query("UPDATE Course c SET c.selectedCount = c.selectedCount + 1 " +
+            "WHERE c.id = :courseId AND (c.capacity IS NULL OR c.selectedCount < c.capacity)")
+    int reserveSeat(Long courseId);
+    
+    @Modifying
+    @Query("UPDATE Course c SET c.selectedCount = c.selectedCount - 1 WHERE c.id = :courseId AND c.selectedCount > 0")
+    int releaseSeat(Long courseId);
+    
+    // 批量退课时一条语句归还多门课程的名额
+    @Modifying
+    @Query("UPDATE Course c SET c.selectedCount = c.selectedCount - 1 WHERE c.id IN :courseIds AND c.selectedCount > 0")
+    int releaseSeats(Collection<Long> courseIds);
+    
+    // 删除一批学生前归还他们占用的名额，每门课程减去这批学生在该课程的选课数
+    @Modifying
+    @Query("UPDATE Course c SET c.selectedCount = c.selectedCount - " +
+            "(SELECT COUNT(sc) FROM StudentCourse sc WHERE sc.course.id = c.id AND sc.student.id IN :studentIds) " +
+            "WHERE c.id IN :courseIds")
+    int releaseSeatsOfStudents(Collection<Long> studentIds, Collection<Long> courseIds);
+    
+    // 直接按主键删除，不加载课程实体和选课集合；返回 0 表示课程不存在
+    @Modifying
+    @Query("DELETE FROM Course c WHERE c.id = :id")
+    int deleteInBulkById(Long id);
+}
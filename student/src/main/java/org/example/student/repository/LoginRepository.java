@@ -1,11 +1,48 @@
 package org.example.student.repository;
 
+import org.example.student.dto.AccountSummaryDTO;
 import org.example.student.entity.Account;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.Optional;
 
 @Repository
 public interface LoginRepository extends JpaRepository<Account, Long>{
     Optional<Account> findByUsername(String username);
+    
+    // 需要转换为 AccountDTO 或 AccountSummaryDTO（包含学生和专业）的场景使用，关联在同一条语句中取出
+    @EntityGraph(attributePaths = {"student", "student.major"})
+    Optional<Account> findWithStudentByUsername(String username);
+    
+    @EntityGraph(attributePaths = {"student", "student.major"})
+    Optional<Account> findWithStudentById(Long id);
+    
+    @Modifying
+    @Query("DELETE FROM Account a WHERE a.student.id IN :studentIds")
+    int deleteInBulkByStudentIds(Collection<Long> studentIds);
+    
+    /*
+     * 账户列表：学生、专业通过 LEFT JOIN 在同一条语句中取出需要的列，直接构造 DTO，不加载实体、不读取密码；
+     * role 为 null 表示不按角色过滤，usernamePattern 为用户名前缀加 %（可走 username 唯一索引的范围扫描）。
+     * 总数查询不需要关联表，单独声明。
+     */
+    @Query(value = "SELECT new org.example.student.dto.AccountSummaryDTO(a.id, a.username, a.role, a.firstLogin, " +
+            "a.createdTime, a.updatedTime, s.id, s.studentId, s.name, s.phone, m.majorName) " +
+            "FROM Account a LEFT JOIN a.student s LEFT JOIN s.major m " +
+            "WHERE (:role IS NULL OR a.role = :role) AND a.username LIKE :usernamePattern ESCAPE '!'",
+            countQuery = "SELECT COUNT(a) FROM Account a " +
+                    "WHERE (:role IS NULL OR a.role = :role) AND a.username LIKE :usernamePattern ESCAPE '!'")
+    Page<AccountSummaryDTO> findSummaries(Account.Role role, String usernamePattern, Pageable pageable);
+    
+    // 当前登录用户信息（/user/info），与账户列表相同的投影，一条语句
+    @Query("SELECT new org.example.student.dto.AccountSummaryDTO(a.id, a.username, a.role, a.firstLogin, " +
+            "a.createdTime, a.updatedTime, s.id, s.studentId, s.name, s.phone, m.majorName) " +
+            "FROM Account a LEFT JOIN a.student s LEFT JOIN s.major m WHERE a.username = :username")
+    Optional<AccountSummaryDTO> findSummaryByUsername(String username);
 }
\ No newline at end of file
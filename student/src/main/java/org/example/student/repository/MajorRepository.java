@@ -2,6 +2,7 @@ package org.example.student.repository;
 
 import org.example.student.entity.Major;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
@@ -13,4 +14,9 @@ public interface MajorRepository extends JpaRepository<Major, Long> {
     
     @Query("SELECT MAX(s.sequenceNumber) FROM Student s WHERE s.major.id = :majorId AND YEAR(s.enrollmentDate) = :year")
     Integer findMaxSequenceNumberByMajorIdAndYear(Long majorId, int year);
+    
+    // 直接按主键删除，不加载专业实体和学生集合；返回 0 表示专业不存在
+    @Modifying
+    @Query("DELETE FROM Major m WHERE m.id = :id")
+    int deleteInBulkById(Long id);
 }
\ No newline at end of file
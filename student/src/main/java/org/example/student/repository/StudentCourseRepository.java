@@ -1,23 +1,102 @@
 package org.example.student.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.student.dto.DailyEnrollmentDTO;
+import org.example.student.dto.EnrollmentCountDTO;
+import org.example.student.dto.EnrollmentTotalsDTO;
 import org.example.student.entity.StudentCourse;
 import org.example.student.entity.Student;
 import org.example.student.entity.Course;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface StudentCourseRepository extends JpaRepository<StudentCourse, Long> {
+    // 选课列表需要映射为 StudentCourseDTO，通过实体图一次性抓取学生、专业和课程，避免 N+1 查询
+    @EntityGraph(attributePaths = {"student", "student.major", "course"})
     List<StudentCourse> findByStudentId(Long studentId);
     
+    @Override
+    @EntityGraph(attributePaths = {"student", "student.major", "course"})
+    List<StudentCourse> findAll();
+    
+    // 按主键游标（keyset）分页：WHERE id > :id ORDER BY id LIMIT n，翻页代价与页码无关
+    @EntityGraph(attributePaths = {"student", "student.major", "course"})
+    List<StudentCourse> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    // 导出用的流式查询，配合按批抓取（fetch size）逐行读取结果集，调用方需在事务内消费并及时 detach。
+    // MySQL 驱动只有在连接串带 useCursorFetch=true 时才按 fetch size 分批读取（prod 配置已开启），否则会缓冲整个结果集
+    @Query("SELECT sc FROM StudentCourse sc JOIN FETCH sc.student s JOIN FETCH s.major " +
+            "JOIN FETCH sc.course ORDER BY sc.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<StudentCourse> streamAllForExport();
+    
     Optional<StudentCourse> findByStudentIdAndCourseId(Long studentId, Long courseId);
     
-    @Query("SELECT SUM(sc.course.credits) FROM StudentCourse sc WHERE sc.student.id = :studentId")
-    Double sumCreditsByStudentId(Long studentId);
+    // 批量选课/退课时一次查出学生在给定课程范围内的选课记录
+    @Query("SELECT sc.course.id FROM StudentCourse sc WHERE sc.student.id = :studentId AND sc.course.id IN :courseIds")
+    List<Long> findSelectedCourseIds(Long studentId, Collection<Long> courseIds);
+    
+    List<StudentCourse> findByStudentIdAndCourseIdIn(Long studentId, Collection<Long> courseIds);
     
     boolean existsByCourseId(Long courseId);
+    
+    long countByCourseId(Long courseId);
+    
+    // 级联删除课程时按主键顺序取下一段选课记录
+    @Query("SELECT sc.id FROM StudentCourse sc WHERE sc.course.id = :courseId ORDER BY sc.id")
+    List<Long> findIdsByCourseId(Long courseId, Limit limit);
+    
+    @Query("SELECT DISTINCT sc.course.id FROM StudentCourse sc WHERE sc.student.id IN :studentIds")
+    List<Long> findCourseIdsByStudentIds(Collection<Long> studentIds);
+    
+    @Modifying
+    @Query("DELETE FROM StudentCourse sc WHERE sc.id IN :ids")
+    int deleteInBulkByIds(Collection<Long> ids);
+    
+    @Modifying
+    @Query("DELETE FROM StudentCourse sc WHERE sc.student.id IN :studentIds")
+    int deleteInBulkByStudentIds(Collection<Long> studentIds);
+    
+    // 按课程分页查询选课名单，一次性抓取学生、专业和课程，避免逐行懒加载
+    @Query(value = "SELECT sc FROM StudentCourse sc JOIN FETCH sc.student s JOIN FETCH s.major " +
+            "JOIN FETCH sc.course c " +
+            "WHERE c.id = :courseId ORDER BY sc.id",
+            countQuery = "SELECT COUNT(sc) FROM StudentCourse sc WHERE sc.course.id = :courseId")
+    Page<StudentCourse> findPageByCourseId(Long courseId, Pageable pageable);
+    
+    // 以下统计查询只做聚合，不加载任何实体
+    @Query("SELECT new org.example.student.dto.EnrollmentTotalsDTO(COUNT(sc), COUNT(DISTINCT sc.student.id), " +
+            "COUNT(DISTINCT sc.course.id)) FROM StudentCourse sc")
+    EnrollmentTotalsDTO summarizeEnrollments();
+    
+    @Query("SELECT new org.example.student.dto.EnrollmentCountDTO(c.id, c.courseName, COUNT(sc), COUNT(DISTINCT sc.student.id)) " +
+            "FROM StudentCourse sc JOIN sc.course c GROUP BY c.id, c.courseName ORDER BY COUNT(sc) DESC")
+    List<EnrollmentCountDTO> countEnrollmentsByCourse();
+    
+    @Query("SELECT new org.example.student.dto.EnrollmentCountDTO(m.id, m.majorName, COUNT(sc), COUNT(DISTINCT s.id)) " +
+            "FROM StudentCourse sc JOIN sc.student s JOIN s.major m GROUP BY m.id, m.majorName ORDER BY COUNT(sc) DESC")
+    List<EnrollmentCountDTO> countEnrollmentsByMajor();
+    
+    @Query("SELECT new org.example.student.dto.DailyEnrollmentDTO(CAST(sc.selectedTime AS LocalDate), COUNT(sc)) " +
+            "FROM StudentCourse sc WHERE sc.selectedTime >= :since " +
+            "GROUP BY CAST(sc.selectedTime AS LocalDate) ORDER BY CAST(sc.selectedTime AS LocalDate)")
+    List<DailyEnrollmentDTO> countEnrollmentsByDay(LocalDateTime since);
 }
\ No newline at end of file
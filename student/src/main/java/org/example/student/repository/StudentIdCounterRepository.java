@@ -0,0 +1,18 @@
+package org.example.student.repository;
+
+import org.example.student.entity.StudentIdCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StudentIdCounterRepository extends JpaRepository<StudentIdCounter, StudentIdCounter.Key> {
+    // 推进计数器并锁住该行直到事务结束，随后读取的 nextValue 即本段的上界（不含）
+    @Modifying
+    @Query("UPDATE StudentIdCounter c SET c.nextValue = c.nextValue + :size WHERE c.id = :id")
+    int advance(StudentIdCounter.Key id, int size);
+    
+    @Query("SELECT c.nextValue FROM StudentIdCounter c WHERE c.id = :id")
+    Integer findNextValue(StudentIdCounter.Key id);
+}
@@ -1,13 +1,78 @@
 package org.example.student.repository;
 
 import org.example.student.entity.Student;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
     boolean existsByPhone(String phone);
+    
+    boolean existsByMajorId(Long majorId);
+    
+    long countByMajorId(Long majorId);
+    
+    // 级联删除专业时按主键顺序取下一段学生；前一段已删除，所以总是从头取
+    @Query("SELECT s.id FROM Student s WHERE s.major.id = :majorId ORDER BY s.id")
+    List<Long> findIdsByMajorId(Long majorId, Limit limit);
+    
+    @Modifying
+    @Query("DELETE FROM Student s WHERE s.id IN :ids")
+    int deleteInBulkByIds(Collection<Long> ids);
+    
+    // 批量导入时按块一次性检查手机号是否已被使用
+    @Query("SELECT s.phone FROM Student s WHERE s.phone IN :phones")
+    List<String> findExistingPhones(Collection<String> phones);
     Optional<Student> findByStudentId(String studentId);
+    
+    // 总学分直接读取预先维护的列，学生不存在时返回 null
+    @Query("SELECT s.totalCredits FROM Student s WHERE s.id = :studentId")
+    BigDecimal findTotalCreditsById(Long studentId);
+    
+    @Modifying
+    @Query("UPDATE Student s SET s.totalCredits = s.totalCredits + :credits WHERE s.id = :studentId")
+    int addCredits(Long studentId, BigDecimal credits);
+    
+    // 条件更新累加学分，超过上限时影响行数为 0，由数据库保证并发选课也不会超出学分上限
+    @Modifying
+    @Query("UPDATE Student s SET s.totalCredits = s.totalCredits + :credits " +
+            "WHERE s.id = :studentId AND s.totalCredits + :credits <= :maxCredits")
+    int addCreditsWithinLimit(Long studentId, BigDecimal credits, BigDecimal maxCredits);
+    
+    // 退课时按课程当前学分扣减，一条语句覆盖单门和批量退课
+    @Modifying
+    @Query("UPDATE Student s SET s.totalCredits = s.totalCredits - " +
+            "(SELECT COALESCE(SUM(c.credits), 0) FROM Course c WHERE c.id IN :courseIds) WHERE s.id = :studentId")
+    int subtractCreditsOfCourses(Long studentId, Collection<Long> courseIds);
+    
+    // 课程学分变更后，同步调整所有选了这门课的学生的总学分
+    @Modifying
+    @Query("UPDATE Student s SET s.totalCredits = s.totalCredits + :delta " +
+            "WHERE s.id IN (SELECT sc.student.id FROM StudentCourse sc WHERE sc.course.id = :courseId)")
+    int adjustCreditsForCourse(Long courseId, BigDecimal delta);
+    
+    // 删除课程的一段选课记录前，扣减对应学生的总学分
+    @Modifying
+    @Query("UPDATE Student s SET s.totalCredits = s.totalCredits - :credits " +
+            "WHERE s.id IN (SELECT sc.student.id FROM StudentCourse sc WHERE sc.id IN :selectionIds)")
+    int subtractCreditsForSelections(Collection<Long> selectionIds, BigDecimal credits);
+    
+    @Query("SELECT MAX(s.id) FROM Student s")
+    Long findMaxId();
+    
+    // 按主键区间重新计算总学分，只更新与选课记录不一致的行，返回修正的行数
+    @Modifying
+    @Query("UPDATE Student s SET s.totalCredits = " +
+            "(SELECT COALESCE(SUM(sc.course.credits), 0) FROM StudentCourse sc WHERE sc.student.id = s.id) " +
+            "WHERE s.id BETWEEN :fromId AND :toId AND s.totalCredits <> " +
+            "(SELECT COALESCE(SUM(sc.course.credits), 0) FROM StudentCourse sc WHERE sc.student.id = s.id)")
+    int reconcileCredits(Long fromId, Long toId);
 }
\ No newline at end of file
@@ -1,11 +1,16 @@
 package org.example.student.service;
 
+import org.example.student.dto.AccountDTO;
+import org.example.student.dto.AccountSummaryDTO;
 import org.example.student.dto.ChangePasswordRequest;
 import org.example.student.entity.Account;
 import org.example.student.repository.LoginRepository;
-import org.example.student.util.PasswordEncoder;
+import org.example.student.util.PasswordPolicy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
@@ -17,19 +22,31 @@ public class AccountService {
     @Autowired
     private LoginRepository loginRepository;
     
+    @Autowired
+    private PasswordService passwordService;
+    
+    @Transactional(readOnly = true)
     public Optional<Account> findByUsername(String username) {
         return loginRepository.findByUsername(username);
     }
     
+    // 登录时使用：登录响应中的用户信息需要学生和专业，与账户一起取出
+    @Transactional(readOnly = true)
+    public Optional<Account> findByUsernameWithStudent(String username) {
+        return loginRepository.findWithStudentByUsername(username);
+    }
+    
     public Account save(Account account) {
         return loginRepository.save(account);
     }
     
+    @Transactional(readOnly = true)
     public List<Account> getAllAccounts() {
         return loginRepository.findAll();
     }
     
     // 获取不包含循环引用的账户列表
+    @Transactional(readOnly = true)
     public List<Account> getAllAccountsWithoutCircularReference() {
         List<Account> accounts = loginRepository.findAll();
         // 这里我们不需要特殊处理，因为JPA的懒加载机制会避免循环引用
@@ -37,12 +54,46 @@ public class AccountService {
         return accounts;
     }
     
-    public Optional<Account> getAccountById(Long id) {
-        return loginRepository.findById(id);
+    // 分页获取账户列表，可按角色和用户名前缀过滤
+    @Transactional(readOnly = true)
+    public Page<AccountSummaryDTO> getAccountSummaries(Account.Role role, String usernamePrefix, Pageable pageable) {
+        String prefix = usernamePrefix == null ? "" : usernamePrefix.trim();
+        // 转义 LIKE 通配符，前缀中的 % 和 _ 按普通字符匹配
+        String pattern = prefix.replace("!", "!!").replace("%", "!%").replace("_", "!_") + "%";
+        return loginRepository.findSummaries(role, pattern, pageable);
     }
     
-    public Account saveAccount(Account account) {
-        return loginRepository.save(account);
+    // 不含密码的账户信息，学生和专业只取展示用的列
+    @Transactional(readOnly = true)
+    public Optional<AccountSummaryDTO> getAccountSummary(String username) {
+        return loginRepository.findSummaryByUsername(username);
+    }
+    
+    @Transactional(readOnly = true)
+    public Optional<AccountDTO> getAccountById(Long id) {
+        return loginRepository.findWithStudentById(id).map(AccountDTO::new);
+    }
+    
+    // 在事务内转换为 DTO，保存后的关联（学生、专业）在会话关闭前加载
+    @Transactional
+    public AccountDTO saveAccount(Account account) {
+        // 管理员直接填写的明文密码先哈希再保存
+        if (account.getPassword() != null && !passwordService.isEncoded(account.getPassword())) {
+            account.setPassword(passwordService.encode(account.getPassword()));
+        }
+        return new AccountDTO(loginRepository.save(account));
+    }
+    
+    // 校验登录密码，校验通过且密文为旧格式（明文、MD5 或较低成本）时顺便升级为当前格式
+    public boolean verifyPassword(Account account, String rawPassword) {
+        if (!passwordService.matches(rawPassword, account.getPassword())) {
+            return false;
+        }
+        if (passwordService.needsRehash(account.getPassword())) {
+            account.setPassword(passwordService.encode(rawPassword));
+            loginRepository.save(account);
+        }
+        return true;
     }
     
     public void deleteAccount(Long id) {
@@ -59,45 +110,20 @@ public class AccountService {
         Account account = accountOpt.get();
         
         // 验证当前密码
-        if (!PasswordEncoder.matches(changePasswordRequest.getCurrentPassword(), account.getPassword())) {
+        if (!passwordService.matches(changePasswordRequest.getCurrentPassword(), account.getPassword())) {
             throw new Exception("当前密码不正确");
         }
         
         // 验证新密码复杂度
-        if (!isValidPassword(changePasswordRequest.getNewPassword())) {
-            throw new Exception("新密码必须包含数字、字母、特殊字符，且长度大于7位");
+        if (!PasswordPolicy.isValid(changePasswordRequest.getNewPassword())) {
+            throw new Exception(PasswordPolicy.REQUIREMENT);
         }
         
         // 更新密码
-        account.setPassword(PasswordEncoder.encode(changePasswordRequest.getNewPassword()));
+        account.setPassword(passwordService.encode(changePasswordRequest.getNewPassword()));
         account.setFirstLogin(false); // 设置为非首次登录
         
         // 保存账户
         loginRepository.save(account);
     }
-    
-    // 验证密码复杂度
-    private boolean isValidPassword(String password) {
-        // 检查密码长度
-        if (password.length() <= 7) {
-            return false;
-        }
-        
-        // 检查是否包含数字
-        if (!password.matches(".*\\d.*")) {
-            return false;
-        }
-        
-        // 检查是否包含字母
-        if (!password.matches(".*[a-zA-Z].*")) {
-            return false;
-        }
-        
-        // 检查是否包含特殊字符
-        if (!password.matches(".*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?].*")) {
-            return false;
-        }
-        
-        return true;
-    }
 }
\ No newline at end of file
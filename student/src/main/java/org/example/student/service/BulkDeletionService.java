@@ -0,0 +1,143 @@
+package org.example.student.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.student.dto.DeletionSummaryDTO;
+import org.example.student.event.CourseChangedEvent;
+import org.example.student.repository.CourseRepository;
+import org.example.student.repository.LoginRepository;
+import org.example.student.repository.MajorRepository;
+import org.example.student.repository.StudentCourseRepository;
+import org.example.student.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 专业、课程的级联删除
+ *
+ * 不经过实体的 CascadeType.ALL（会逐个加载学生、选课、账号再逐行删除），而是用批量 DELETE/UPDATE 语句
+ * 按主键分段执行，每段一个短事务，每段的语句数固定，与专业下的学生数无关，也不会长时间锁住大量行。
+ * 中途失败时已提交的分段不会回滚，重新执行即可从剩余的数据继续删除。
+ */
+@Slf4j
+@Service
+public class BulkDeletionService {
+
+    static final int CHUNK_SIZE = 1000;
+
+    @Autowired
+    private MajorRepository majorRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private StudentCourseRepository studentCourseRepository;
+
+    @Autowired
+    private LoginRepository loginRepository;
+
+    @Autowired
+    private CourseSeatService courseSeatService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 删除专业，连同其下所有学生的选课记录、账号和学生本身（归还名额）
+     *
+     * @return 删除结果，专业不存在时为空
+     */
+    public Optional<DeletionSummaryDTO> deleteMajor(Long majorId) {
+        if (!majorRepository.existsById(majorId)) {
+            return Optional.empty();
+        }
+        long total = studentRepository.countByMajorId(majorId);
+        DeletionSummaryDTO summary = new DeletionSummaryDTO();
+        while (true) {
+            List<Long> releasedCourseIds = transactionTemplate.execute(status -> deleteStudentChunk(majorId, summary));
+            if (releasedCourseIds == null) {
+                break;
+            }
+            // 提交后再丢弃内存中的名额计数，避免其他请求在提交前按旧值重新加载
+            releasedCourseIds.forEach(courseSeatService::invalidate);
+            summary.setChunks(summary.getChunks() + 1);
+            log.info("删除专业 {}：已删除 {}/{} 名学生", majorId, summary.getStudents(), total);
+        }
+        Integer deleted = transactionTemplate.execute(status -> majorRepository.deleteInBulkById(majorId));
+        log.info("专业 {} 已删除：学生 {}，账号 {}，选课记录 {}，共 {} 段",
+                majorId, summary.getStudents(), summary.getAccounts(), summary.getSelections(), summary.getChunks());
+        return deleted != null && deleted > 0 ? Optional.of(summary) : Optional.empty();
+    }
+
+    /**
+     * 删除课程，连同其所有选课记录（扣减对应学生的总学分）
+     *
+     * @return 删除结果，课程不存在时为空
+     */
+    public Optional<DeletionSummaryDTO> deleteCourse(Long courseId) {
+        BigDecimal credits = courseRepository.findCreditsById(courseId);
+        if (credits == null) {
+            return Optional.empty();
+        }
+        long total = studentCourseRepository.countByCourseId(courseId);
+        DeletionSummaryDTO summary = new DeletionSummaryDTO();
+        while (true) {
+            Integer deleted = transactionTemplate.execute(status -> {
+                List<Long> selectionIds = studentCourseRepository.findIdsByCourseId(courseId, Limit.of(CHUNK_SIZE));
+                if (selectionIds.isEmpty()) {
+                    return 0;
+                }
+                studentRepository.subtractCreditsForSelections(selectionIds, credits);
+                return studentCourseRepository.deleteInBulkByIds(selectionIds);
+            });
+            if (deleted == null || deleted == 0) {
+                break;
+            }
+            summary.setSelections(summary.getSelections() + deleted);
+            summary.setChunks(summary.getChunks() + 1);
+            log.info("删除课程 {}：已删除 {}/{} 条选课记录", courseId, summary.getSelections(), total);
+        }
+        Integer deleted = transactionTemplate.execute(status -> courseRepository.deleteInBulkById(courseId));
+        log.info("课程 {} 已删除：选课记录 {}，共 {} 段", courseId, summary.getSelections(), summary.getChunks());
+        return deleted != null && deleted > 0 ? Optional.of(summary) : Optional.empty();
+    }
+
+    // 删除专业下的下一段学生，返回归还了名额的课程；没有剩余学生时返回 null
+    private List<Long> deleteStudentChunk(Long majorId, DeletionSummaryDTO summary) {
+        List<Long> studentIds = studentRepository.findIdsByMajorId(majorId, Limit.of(CHUNK_SIZE));
+        if (studentIds.isEmpty()) {
+            return null;
+        }
+        List<Long> courseIds = studentCourseRepository.findCourseIdsByStudentIds(studentIds);
+        if (!courseIds.isEmpty()) {
+            courseRepository.releaseSeatsOfStudents(studentIds, courseIds);
+            summary.setSelections(summary.getSelections() + studentCourseRepository.deleteInBulkByStudentIds(studentIds));
+            eventPublisher.publishEvent(CourseChangedEvent.seats(courseIds));
+        }
+        summary.setAccounts(summary.getAccounts() + loginRepository.deleteInBulkByStudentIds(studentIds));
+        summary.setStudents(summary.getStudents() + studentRepository.deleteInBulkByIds(studentIds));
+        return courseIds;
+    }
+}
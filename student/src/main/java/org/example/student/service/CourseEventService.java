@@ -0,0 +1,347 @@
+package org.example.student.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.student.dto.CourseSeatDTO;
+import org.example.student.event.CourseChangedEvent;
+import org.example.student.repository.CourseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 课程名额和课程信息变化的实时推送（SSE）
+ *
+ * 选课页面不再轮询 /course/list 和 /enrollment/*，而是订阅 /course/events。变化事件在事务提交后只记下课程 ID，
+ * 由单独的线程每隔一个合并窗口（enrollment.events.coalesce-ms）统一处理：窗口内同一课程的多次选课、退课
+ * 只推送一次，所有变化课程的最新名额用一条查询读出、序列化一次后发给全部订阅者，
+ * 数据库和序列化的开销与订阅人数无关。
+ * 订阅连接使用 Servlet 异步请求，空闲时不占用请求线程（平台线程或虚拟线程模式均如此）。
+ *
+ * 合并线程只把事件放进每个连接自己的发送队列，由发送线程池逐个写出，个别客户端网络慢不会拖住其他订阅者。
+ * 跟不上推送的连接会被断开：队列积压超过 enrollment.events.max-pending 条，或单次写出超过
+ * enrollment.events.write-timeout-ms 仍未返回。浏览器随后自动重连，重连后的 ready 事件会让页面重新拉取一次，
+ * 期间丢弃的事件不影响最终显示。
+ */
+@Slf4j
+@Service
+public class CourseEventService {
+
+    @Value("${enrollment.events.coalesce-ms:250}")
+    private long coalesceMillis;
+
+    @Value("${enrollment.events.heartbeat-ms:15000}")
+    private long heartbeatMillis;
+
+    @Value("${enrollment.events.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${enrollment.events.max-subscribers:20000}")
+    private int maxSubscribers;
+
+    @Value("${enrollment.events.max-pending:32}")
+    private int maxPending;
+
+    @Value("${enrollment.events.write-timeout-ms:5000}")
+    private long writeTimeoutMillis;
+
+    @Value("${enrollment.events.sender-threads:8}")
+    private int senderThreads;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    // 当前合并窗口内名额发生变化的课程
+    private final Set<Long> changedCourses = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean catalogChanged = new AtomicBoolean();
+
+    private final AtomicLong evictedCount = new AtomicLong();
+
+    private ScheduledExecutorService scheduler;
+    private ExecutorService sender;
+    private volatile long lastSentAt = System.currentTimeMillis();
+
+    @PostConstruct
+    void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "course-events");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger senderIndex = new AtomicInteger();
+        sender = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "course-events-send-" + senderIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, coalesceMillis, coalesceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+        subscribers.forEach(Subscriber::close);
+        subscribers.clear();
+        sender.shutdown();
+    }
+
+    /**
+     * 新建订阅。连接建立后先推送一次 ready 事件（携带课程目录 ETag），客户端应在收到后再拉取一次课程和名额，
+     * 之后只需按推送更新。
+     *
+     * @throws IllegalStateException 订阅数已达上限
+     */
+    public SseEmitter subscribe() {
+        if (subscribers.size() >= maxSubscribers) {
+            throw new IllegalStateException("订阅人数已达上限");
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        register(emitter);
+        return emitter;
+    }
+
+    // ready 事件先于订阅者加入广播列表入队，保证它是连接上的第一个事件
+    void register(SseEmitter emitter) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::detach);
+        emitter.onTimeout(subscriber::detach);
+        emitter.onError(e -> subscriber.detach());
+        subscriber.enqueue(SseEmitter.event().name("ready").data(catalogPayload()));
+        subscribers.add(subscriber);
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    /**
+     * 因跟不上推送而被断开的连接数（累计）
+     */
+    public long getEvictedCount() {
+        return evictedCount.get();
+    }
+
+    // 只在事务提交后记录变化（没有事务时立即记录），回滚的选课不会被推送
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCourseChanged(CourseChangedEvent event) {
+        changedCourses.addAll(event.getCourseIds());
+        if (event.isCatalogChanged()) {
+            catalogChanged.set(true);
+        }
+    }
+
+    /**
+     * 推送当前合并窗口内的变化：seats 事件为变化课程的最新名额列表，catalog 事件表示课程目录需要重新拉取。
+     * 一段时间没有任何推送时发送注释行作为心跳，及时清理已断开的连接。
+     * 这里只负责入队，不等待写出；写出卡住超过 write-timeout-ms 的连接在此断开。
+     */
+    public void flush() {
+        List<Long> courseIds = drainChangedCourses();
+        boolean catalog = catalogChanged.getAndSet(false);
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.isStalled(now)) {
+                subscriber.evict("单次写出超过 " + writeTimeoutMillis + "ms");
+            }
+        }
+        if (!courseIds.isEmpty()) {
+            String seats = toJson(courseRepository.findSeatsByIdIn(courseIds));
+            broadcast("seats", seats);
+        }
+        if (catalog) {
+            broadcast("catalog", catalogPayload());
+        }
+        if (courseIds.isEmpty() && !catalog && now - lastSentAt >= heartbeatMillis) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+            lastSentAt = now;
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // 单次推送失败不能终止调度线程
+            log.warn("课程变化推送失败", e);
+        }
+    }
+
+    private List<Long> drainChangedCourses() {
+        List<Long> courseIds = new ArrayList<>();
+        Iterator<Long> iterator = changedCourses.iterator();
+        while (iterator.hasNext()) {
+            courseIds.add(iterator.next());
+            iterator.remove();
+        }
+        return courseIds;
+    }
+
+    // 事件内容已序列化为字符串，每个连接只需写出
+    private void broadcast(String name, String payload) {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.enqueue(SseEmitter.event().name(name).data(payload));
+        }
+        lastSentAt = System.currentTimeMillis();
+    }
+
+    private String catalogPayload() {
+        return toJson(Map.of("etag", courseService.getCatalog().getEtag()));
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("无法序列化课程变化事件", e);
+        }
+    }
+
+    /**
+     * 一个订阅连接及其发送队列。同一时刻最多有一个发送线程在处理它，事件按入队顺序写出。
+     * 结束连接（complete）要等正在进行的写出释放 SseEmitter 的写锁，所以总是由发送线程执行，
+     * 合并线程只做标记，不会被卡住的连接阻塞。
+     */
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final Queue<SseEmitter.SseEventBuilder> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger pendingCount = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean completed = new AtomicBoolean();
+        private volatile boolean closed;
+        private volatile Throwable failure;
+        // 当前这次写出的开始时间，没有在写时为 0
+        private volatile long writingSince;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        // 入队后立即返回；积压超过上限说明客户端跟不上，断开连接
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed) {
+                return;
+            }
+            if (pendingCount.incrementAndGet() > maxPending) {
+                evict("积压超过 " + maxPending + " 条事件");
+                return;
+            }
+            pending.add(event);
+            schedule();
+        }
+
+        boolean isStalled(long now) {
+            long since = writingSince;
+            return since != 0 && now - since > writeTimeoutMillis;
+        }
+
+        void evict(String reason) {
+            if (!closed) {
+                evictedCount.incrementAndGet();
+                log.info("断开跟不上推送的订阅连接：{}", reason);
+                close();
+            }
+        }
+
+        // 停止推送并移出广播列表，连接由发送线程结束
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            pending.clear();
+            schedule();
+        }
+
+        // 连接已由容器结束（完成、超时或出错），只需移出广播列表
+        void detach() {
+            completed.set(true);
+            closed = true;
+            subscribers.remove(this);
+            pending.clear();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                try {
+                    sender.execute(this);
+                } catch (RejectedExecutionException e) {
+                    // 服务正在关闭
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                SseEmitter.SseEventBuilder event;
+                while (!closed && (event = pending.poll()) != null) {
+                    pendingCount.decrementAndGet();
+                    write(event);
+                }
+                if (closed && completed.compareAndSet(false, true)) {
+                    if (failure != null) {
+                        emitter.completeWithError(failure);
+                    } else {
+                        emitter.complete();
+                    }
+                }
+            } finally {
+                scheduled.set(false);
+            }
+            // 释放标记与入队之间可能有新事件或关闭请求，补一次调度
+            if (closed ? !completed.get() : !pending.isEmpty()) {
+                schedule();
+            }
+        }
+
+        private void write(SseEmitter.SseEventBuilder event) {
+            writingSince = System.currentTimeMillis();
+            try {
+                emitter.send(event);
+            } catch (IOException | IllegalStateException e) {
+                // 客户端已断开或连接已结束
+                failure = e;
+                closed = true;
+                subscribers.remove(this);
+                pending.clear();
+            } finally {
+                writingSince = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package org.example.student.service;
+
+import org.example.student.dto.CourseSeatDTO;
+import org.example.student.entity.Course;
+import org.example.student.repository.CourseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 课程名额计数服务
+ *
+ * 在数据库前面维护一份按课程划分的无锁剩余名额计数：选课高峰时，已满课程的请求直接在内存中被拒绝，
+ * 不再占用数据库连接和行锁。内存计数只是前置过滤，是否真正占到名额仍以
+ * {@link CourseRepository#reserveSeat(Long)} 的条件更新结果为准，因此多实例部署或计数过期都不会导致超卖。
+ */
+@Service
+public class CourseSeatService {
+
+    // 计数耗尽后，距离上次从数据库加载超过该间隔才重新加载，以感知其他实例上的退课
+    private static final long REFRESH_INTERVAL_MILLIS = 1000;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    private final ConcurrentHashMap<Long, SeatCounter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 在内存中预占一个名额，当前事务回滚时自动归还（没有事务时不做处理）
+     *
+     * @return 课程不限人数或仍有剩余名额时返回 true；课程已满或不存在时返回 false
+     */
+    public boolean tryAcquire(Long courseId) {
+        SeatCounter counter = acquire(courseId);
+        if (counter == null) {
+            return false;
+        }
+        releaseOnRollback(courseId, counter);
+        return true;
+    }
+
+    // 归还一个预占的名额
+    public void release(Long courseId) {
+        SeatCounter counter = counters.get(courseId);
+        if (counter != null) {
+            counter.release();
+        }
+    }
+
+    // 当前事务提交后归还名额，用于退课
+    public void releaseAfterCommit(Long courseId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            release(courseId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    release(courseId);
+                }
+            }
+        });
+    }
+
+    // 丢弃内存计数，下次访问时从数据库重新加载（课程容量变更、删除或与数据库不一致时调用）
+    public void invalidate(Long courseId) {
+        counters.remove(courseId);
+    }
+
+    // 用已加载的课程预热尚未建立的计数，批量选课时避免逐门回源查询名额
+    public void warmUp(Collection<Course> courses) {
+        for (Course course : courses) {
+            counters.computeIfAbsent(course.getId(), id -> newCounter(
+                    new CourseSeatDTO(id, course.getCapacity(), course.getSelectedCount())));
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public List<CourseSeatDTO> getAllSeats() {
+        return courseRepository.findAllSeats();
+    }
+
+    // 返回预占成功的计数，失败返回 null
+    private SeatCounter acquire(Long courseId) {
+        SeatCounter counter = counters.get(courseId);
+        if (counter == null) {
+            counter = reload(courseId);
+        }
+        if (counter == null) {
+            return null;
+        }
+        if (counter.tryAcquire()) {
+            return counter;
+        }
+        // 名额耗尽时按间隔回源一次，避免其他实例退课后本实例一直拒绝
+        if (System.currentTimeMillis() - counter.loadedAt >= REFRESH_INTERVAL_MILLIS) {
+            SeatCounter refreshed = reload(courseId);
+            return refreshed != null && refreshed.tryAcquire() ? refreshed : null;
+        }
+        return null;
+    }
+
+    /*
+     * 回滚时只归还到预占时的那份计数。事务期间计数若被丢弃并从数据库重新加载（例如条件更新失败后 invalidate），
+     * 新计数读到的是已提交的数据，本来就不含这次预占，再归还会让剩余名额多出一个
+     */
+    private void releaseOnRollback(Long courseId, SeatCounter counter) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK && counters.get(courseId) == counter) {
+                    counter.release();
+                }
+            }
+        });
+    }
+
+    private SeatCounter reload(Long courseId) {
+        Optional<CourseSeatDTO> seats = courseRepository.findSeatsById(courseId);
+        if (seats.isEmpty()) {
+            counters.remove(courseId);
+            return null;
+        }
+        SeatCounter counter = newCounter(seats.get());
+        counters.put(courseId, counter);
+        return counter;
+    }
+
+    private static SeatCounter newCounter(CourseSeatDTO seats) {
+        return new SeatCounter(seats.getCapacity() == null ? SeatCounter.UNLIMITED : seats.getRemaining());
+    }
+
+    private static final class SeatCounter {
+        static final int UNLIMITED = -1;
+
+        final AtomicInteger remaining;
+        final long loadedAt = System.currentTimeMillis();
+
+        SeatCounter(int remaining) {
+            this.remaining = new AtomicInteger(remaining);
+        }
+
+        boolean tryAcquire() {
+            while (true) {
+                int current = remaining.get();
+                if (current == UNLIMITED) {
+                    return true;
+                }
+                if (current <= 0) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void release() {
+            remaining.updateAndGet(current -> current == UNLIMITED ? UNLIMITED : current + 1);
+        }
+    }
+}
@@ -1,12 +1,32 @@
 package org.example.student.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.student.dto.CourseCatalog;
+import org.example.student.dto.CourseDTO;
+import org.example.student.dto.DeletionSummaryDTO;
 import org.example.student.entity.Course;
+import org.example.student.event.CourseChangedEvent;
 import org.example.student.repository.CourseRepository;
+import org.example.student.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 
 @Service
 public class CourseService {
@@ -14,23 +34,136 @@ public class CourseService {
     @Autowired
     private CourseRepository courseRepository;
     
+    @Autowired
+    private StudentRepository studentRepository;
+    
+    @Autowired
+    private CourseSeatService courseSeatService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private BulkDeletionService bulkDeletionService;
+    
+    // 课程目录缓存：一学期只变动几次却在选课期间被频繁读取，缓存映射好的 DTO 列表和 ETag
+    private final AtomicReference<CourseCatalog> catalog = new AtomicReference<>();
+    // 每次失效递增，用于丢弃失效前开始构建的旧快照
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final AtomicLong catalogHits = new AtomicLong();
+    private final AtomicLong catalogMisses = new AtomicLong();
+    private final AtomicLong catalogEvictions = new AtomicLong();
+    
+    @Transactional(readOnly = true)
     public List<Course> getAllCourses() {
         return courseRepository.findAll();
     }
     
+    // 读取课程目录，未命中时从数据库加载并缓存（不开启事务，命中缓存时不占用连接）
+    public CourseCatalog getCatalog() {
+        CourseCatalog cached = catalog.get();
+        if (cached != null) {
+            catalogHits.incrementAndGet();
+            return cached;
+        }
+        catalogMisses.incrementAndGet();
+        long version = catalogVersion.get();
+        CourseCatalog built = buildCatalog();
+        if (catalog.compareAndSet(null, built) && catalogVersion.get() != version) {
+            // 构建期间课程发生了变化，这份快照可能已过期，不予缓存
+            catalog.compareAndSet(built, null);
+        }
+        return built;
+    }
+    
+    // 课程目录缓存的命中、未命中、失效次数
+    public Map<String, Object> getCatalogStatistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("hits", catalogHits.get());
+        statistics.put("misses", catalogMisses.get());
+        statistics.put("evictions", catalogEvictions.get());
+        CourseCatalog cached = catalog.get();
+        statistics.put("cachedCourses", cached != null ? cached.getCourses().size() : 0);
+        return statistics;
+    }
+    
+    @Transactional(readOnly = true)
     public Optional<Course> getCourseById(Long id) {
         return courseRepository.findById(id);
     }
     
+    // 修改已有课程的学分时，同一事务内调整已选该课程学生的总学分
+    @Transactional
     public Course saveCourse(Course course) {
-        return courseRepository.save(course);
+        BigDecimal previousCredits = null;
+        if (course.getId() == null) {
+            course.setSelectedCount(0);
+        } else {
+            previousCredits = courseRepository.findCreditsById(course.getId());
+        }
+        Course savedCourse = courseRepository.save(course);
+        if (previousCredits != null && savedCourse.getCredits().compareTo(previousCredits) != 0) {
+            studentRepository.adjustCreditsForCourse(savedCourse.getId(), savedCourse.getCredits().subtract(previousCredits));
+        }
+        // 容量可能发生变化，丢弃内存中的名额计数
+        courseSeatService.invalidate(savedCourse.getId());
+        evictCatalog();
+        eventPublisher.publishEvent(CourseChangedEvent.catalog(savedCourse.getId()));
+        return savedCourse;
     }
     
-    public void deleteCourse(Long id) {
-        courseRepository.deleteById(id);
+    // 删除课程及其选课记录（分段批量删除并扣减学生总学分），课程不存在时返回空
+    public Optional<DeletionSummaryDTO> deleteCourse(Long id) {
+        Optional<DeletionSummaryDTO> summary = bulkDeletionService.deleteCourse(id);
+        courseSeatService.invalidate(id);
+        evictCatalog();
+        eventPublisher.publishEvent(CourseChangedEvent.catalog(id));
+        return summary;
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByCourseCode(String courseCode) {
         return courseRepository.findByCourseCode(courseCode).isPresent();
     }
-}
\ No newline at end of file
+    
+    // 课程写入后使目录缓存失效；处于事务中时等到提交后再失效，避免其他请求把未提交前的数据重新缓存
+    private void evictCatalog() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doEvictCatalog();
+                }
+            });
+        } else {
+            doEvictCatalog();
+        }
+    }
+    
+    private void doEvictCatalog() {
+        catalogVersion.incrementAndGet();
+        if (catalog.getAndSet(null) != null) {
+            catalogEvictions.incrementAndGet();
+        }
+    }
+    
+    private CourseCatalog buildCatalog() {
+        List<CourseDTO> courses = courseRepository.findAll().stream()
+                .map(CourseDTO::new)
+                .collect(Collectors.toList());
+        return new CourseCatalog(courses, computeEtag(courses));
+    }
+    
+    // 以课程列表 JSON 的 SHA-256 摘要作为强 ETag，内容不变则 ETag 不变（与进程重启无关）
+    private String computeEtag(List<CourseDTO> courses) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(courses));
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("无法计算课程目录ETag", e);
+        }
+    }
+}
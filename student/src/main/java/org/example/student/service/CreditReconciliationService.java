@@ -0,0 +1,64 @@
+package org.example.student.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.student.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 学生总学分对账
+ *
+ * student.total_credits 随选课、退课和课程学分变更增量维护。课程学分修改与同一课程的选课并发提交、
+ * 或直接改库等情况下可能与选课记录产生偏差，这里定期按选课记录重新计算并修正。
+ * 按主键分段执行，每段一个短事务，避免一次更新锁住整张学生表。
+ */
+@Slf4j
+@Service
+public class CreditReconciliationService {
+
+    private static final long CHUNK_SIZE = 1000;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * 重新计算所有学生的总学分
+     *
+     * @return 被修正的学生数
+     */
+    @Scheduled(cron = "${enrollment.credits.reconcile-cron:0 30 3 * * *}")
+    public int reconcile() {
+        Long maxId = studentRepository.findMaxId();
+        if (maxId == null) {
+            return 0;
+        }
+        int corrected = 0;
+        for (long from = 1; from <= maxId; from += CHUNK_SIZE) {
+            long fromId = from;
+            long toId = from + CHUNK_SIZE - 1;
+            Integer updated = transactionTemplate.execute(status -> studentRepository.reconcileCredits(fromId, toId));
+            corrected += updated != null ? updated : 0;
+        }
+        if (corrected > 0) {
+            log.warn("总学分对账修正了 {} 名学生", corrected);
+        } else {
+            log.debug("总学分对账完成，没有不一致的记录");
+        }
+        return corrected;
+    }
+}
@@ -0,0 +1,123 @@
+package org.example.student.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.example.student.dto.StudentCourseDTO;
+import org.example.student.entity.StudentCourse;
+import org.example.student.repository.StudentCourseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 选课数据导出服务
+ * 交互式浏览使用主键游标分页；全量导出通过数据库游标逐行读取并直接写入响应流，内存占用与数据量无关
+ */
+@Service
+public class EnrollmentExportService {
+
+    public enum Format { NDJSON, CSV }
+
+    // 每写出多少行清理一次持久化上下文，保证一级缓存不会随导出行数增长
+    private static final int CLEAR_INTERVAL = 500;
+
+    private static final String CSV_HEADER =
+            "id,studentId,studentName,majorName,courseCode,courseName,credits,selectedTime";
+
+    @Autowired
+    private StudentCourseRepository studentCourseRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // 返回 id 大于 afterId 的下一页选课记录
+    @Transactional(readOnly = true)
+    public List<StudentCourseDTO> getPageAfter(long afterId, int size) {
+        return studentCourseRepository.findByIdGreaterThanOrderByIdAsc(afterId, Limit.of(size))
+                .stream()
+                .map(StudentCourseDTO::new)
+                .collect(Collectors.toList());
+    }
+
+    @Transactional(readOnly = true)
+    public void export(Format format, OutputStream outputStream) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        ObjectWriter jsonWriter = objectMapper.writerFor(StudentCourseDTO.class);
+        if (format == Format.CSV) {
+            // 写入 BOM 便于 Excel 正确识别 UTF-8 中文
+            writer.write('\uFEFF');
+            writer.write(CSV_HEADER);
+            writer.write('\n');
+        }
+
+        try (Stream<StudentCourse> enrollments = studentCourseRepository.streamAllForExport()) {
+            Iterator<StudentCourse> iterator = enrollments.iterator();
+            int rows = 0;
+            while (iterator.hasNext()) {
+                StudentCourseDTO dto = new StudentCourseDTO(iterator.next());
+                if (format == Format.CSV) {
+                    writeCsvRow(writer, dto);
+                } else {
+                    writer.write(jsonWriter.writeValueAsString(dto));
+                    writer.write('\n');
+                }
+                if (++rows % CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                    writer.flush();
+                }
+            }
+        }
+        writer.flush();
+    }
+
+    private void writeCsvRow(Writer writer, StudentCourseDTO dto) throws IOException {
+        writer.write(String.valueOf(dto.getId()));
+        writer.write(',');
+        writeCsvField(writer, dto.getStudent() != null ? dto.getStudent().getStudentId() : null);
+        writer.write(',');
+        writeCsvField(writer, dto.getStudent() != null ? dto.getStudent().getName() : null);
+        writer.write(',');
+        writeCsvField(writer, dto.getStudent() != null && dto.getStudent().getMajor() != null
+                ? dto.getStudent().getMajor().getMajorName() : null);
+        writer.write(',');
+        writeCsvField(writer, dto.getCourse() != null ? dto.getCourse().getCourseCode() : null);
+        writer.write(',');
+        writeCsvField(writer, dto.getCourse() != null ? dto.getCourse().getCourseName() : null);
+        writer.write(',');
+        writeCsvField(writer, dto.getCourse() != null && dto.getCourse().getCredits() != null
+                ? dto.getCourse().getCredits().toPlainString() : null);
+        writer.write(',');
+        writeCsvField(writer, dto.getSelectedTime() != null ? dto.getSelectedTime().toString() : null);
+        writer.write('\n');
+    }
+
+    private void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.student.service;
+
+import org.example.student.dto.DailyEnrollmentDTO;
+import org.example.student.dto.EnrollmentCountDTO;
+import org.example.student.dto.EnrollmentTotalsDTO;
+import org.example.student.repository.StudentCourseRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 选课统计服务
+ * 所有统计都由数据库聚合（COUNT / COUNT DISTINCT / GROUP BY）完成，内存占用与选课表规模无关
+ */
+@Service
+public class EnrollmentStatisticsService {
+
+    @Autowired
+    private StudentCourseRepository studentCourseRepository;
+
+    @Transactional(readOnly = true)
+    public EnrollmentTotalsDTO getTotals() {
+        return studentCourseRepository.summarizeEnrollments();
+    }
+
+    @Transactional(readOnly = true)
+    public List<EnrollmentCountDTO> getCountsByCourse() {
+        return studentCourseRepository.countEnrollmentsByCourse();
+    }
+
+    @Transactional(readOnly = true)
+    public List<EnrollmentCountDTO> getCountsByMajor() {
+        return studentCourseRepository.countEnrollmentsByMajor();
+    }
+
+    // 统计最近 days 天（含今天）每天的选课数量
+    @Transactional(readOnly = true)
+    public List<DailyEnrollmentDTO> getDailyCounts(int days) {
+        LocalDate since = LocalDate.now().minusDays(Math.max(days, 1) - 1L);
+        return studentCourseRepository.countEnrollmentsByDay(since.atStartOfDay());
+    }
+}
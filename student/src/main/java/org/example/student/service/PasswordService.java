@@ -0,0 +1,162 @@
+package org.example.student.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.example.student.util.PasswordEncoder;
+import org.example.student.util.PasswordHasher;
+import org.example.student.util.Pbkdf2PasswordHasher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 密码哈希服务
+ *
+ * 新密码使用 PBKDF2 计算，成本（迭代次数）由 password.hash.iterations 配置；历史 MD5 密文和明文密码
+ * 仍可校验，并在登录成功后由 {@link AccountService#verifyPassword} 升级为当前格式。
+ * 哈希计算在独立的有界线程池中执行：并发计算数不超过 password.hash.threads，排队已满或等待超时的请求
+ * 直接失败，登录高峰时不会因为 CPU 密集的哈希计算把 Tomcat 请求线程全部拖住。
+ */
+@Service
+public class PasswordService {
+
+    @Value("${password.hash.iterations:210000}")
+    private int iterations;
+
+    // 0 表示使用 CPU 核数
+    @Value("${password.hash.threads:0}")
+    private int threads;
+
+    @Value("${password.hash.queue-capacity:256}")
+    private int queueCapacity;
+
+    @Value("${password.hash.timeout-ms:5000}")
+    private long timeoutMillis;
+
+    private PasswordHasher hasher;
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    void init() {
+        hasher = new Pbkdf2PasswordHasher(iterations);
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger counter = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    // 等待哈希计算的任务数，持续接近 queue-capacity 说明需要扩容或降低迭代次数
+    public int getQueuedTasks() {
+        return executor.getQueue().size();
+    }
+
+    // 正在计算哈希的线程数
+    public int getActiveTasks() {
+        return executor.getActiveCount();
+    }
+
+    // 使用当前算法和成本计算密码哈希
+    public String encode(String rawPassword) {
+        return runBounded(() -> hasher.hash(rawPassword));
+    }
+
+    /**
+     * 为多个账户分别计算同一密码的哈希（例如批量导入时的初始密码），每个哈希使用各自的盐。
+     * 同时提交的任务不超过线程数，不会占满排队名额而让并发的登录请求被拒绝。
+     */
+    public List<String> encodeEach(String rawPassword, int count) {
+        List<String> hashes = new ArrayList<>(count);
+        Deque<Future<String>> pending = new ArrayDeque<>();
+        for (int i = 0; i < count; i++) {
+            if (pending.size() == executor.getMaximumPoolSize()) {
+                hashes.add(await(pending.poll()));
+            }
+            pending.add(submit(() -> hasher.hash(rawPassword)));
+        }
+        while (!pending.isEmpty()) {
+            hashes.add(await(pending.poll()));
+        }
+        return hashes;
+    }
+
+    // 校验密码，兼容 PBKDF2、历史 MD5 和明文三种存储方式
+    public boolean matches(String rawPassword, String storedPassword) {
+        if (rawPassword == null || storedPassword == null) {
+            return false;
+        }
+        if (hasher.supports(storedPassword)) {
+            return runBounded(() -> hasher.matches(rawPassword, storedPassword));
+        }
+        if (PasswordEncoder.isMd5(storedPassword)) {
+            return PasswordEncoder.matches(rawPassword, storedPassword);
+        }
+        return MessageDigest.isEqual(rawPassword.getBytes(StandardCharsets.UTF_8),
+                storedPassword.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 已保存的密码是否需要按当前算法和成本重新计算
+    public boolean needsRehash(String storedPassword) {
+        return !hasher.supports(storedPassword) || hasher.needsRehash(storedPassword);
+    }
+
+    // 已保存的值是否为密文（PBKDF2 或历史 MD5），否则视为明文
+    public boolean isEncoded(String storedPassword) {
+        return hasher.supports(storedPassword) || PasswordEncoder.isMd5(storedPassword);
+    }
+
+    private <T> T runBounded(Callable<T> task) {
+        return await(submit(task));
+    }
+
+    private <T> Future<T> submit(Callable<T> task) {
+        try {
+            return executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            throw new IllegalStateException("系统繁忙，请稍后重试", e);
+        }
+    }
+
+    private <T> T await(Future<T> future) {
+        try {
+            return future.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new IllegalStateException("系统繁忙，请稍后重试", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("密码校验被中断", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("无法计算密码哈希", e.getCause());
+        }
+    }
+}
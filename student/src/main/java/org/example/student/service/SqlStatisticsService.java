@@ -0,0 +1,447 @@
+package org.example.student.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.lifecycle.JdbcLifecycleEventListenerAdapter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * SQL 执行统计
+ *
+ * 数据源被 datasource-proxy 包装后（见 SqlInstrumentationConfig），每条语句执行完都会回调到这里：
+ * 记录全局耗时直方图、按 SQL 文本汇总的次数/耗时/行数，以及按接口汇总的每请求语句数。
+ * 同一请求内同一条 SQL 执行次数达到阈值时记为疑似 N+1，单条语句超过慢查询阈值时记录并告警。
+ * 统计结果通过管理端口上的 /actuator/sql 查看，不再依赖 show-sql 打印到控制台。
+ *
+ * 每个请求占用数据库连接的总时长（连接从取得到归还）按接口汇总，并以 sql.connection.hold 指标（method、uri 标签）
+ * 输出到 Prometheus，可与 http.server.requests 对比，确认连接池是否在响应写出期间被占用。
+ *
+ * 请求归属依赖线程变量，由 SqlRequestFilter 在请求开始和结束时设置；异步线程中执行的语句只计入全局统计。
+ * 查询返回的行数按 ResultSet.next() 计数，归到本线程最近执行的一条语句上。
+ */
+@Slf4j
+@Service
+public class SqlStatisticsService {
+
+    // 语句耗时直方图的桶上界（毫秒）
+    private static final long[] LATENCY_BUCKETS_MS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 5000};
+
+    // 每请求语句数直方图的桶上界
+    private static final long[] STATEMENTS_PER_REQUEST_BUCKETS = {0, 1, 2, 5, 10, 20, 50, 100};
+
+    // 单独统计的不同 SQL 数量上限，超出后只计入全局统计，防止拼接 SQL 把内存撑大
+    private static final int MAX_TRACKED_STATEMENTS = 1000;
+
+    private static final int MAX_SLOW_QUERIES = 50;
+
+    private static final int MAX_N_PLUS_ONE_SUSPECTS = 100;
+
+    // 接口统计和直方图中列出的 SQL 条数
+    private static final int TOP_STATEMENTS = 20;
+
+    private static final ThreadLocal<RequestContext> CURRENT_REQUEST = new ThreadLocal<>();
+
+    private static final ThreadLocal<StatementStats> LAST_STATEMENT = new ThreadLocal<>();
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${sql.instrumentation.slow-query-ms:200}")
+    private long slowQueryMillis;
+
+    @Value("${sql.instrumentation.n-plus-one-threshold:10}")
+    private int nPlusOneThreshold;
+
+    private final Histogram latency = new Histogram(LATENCY_BUCKETS_MS);
+    private final Histogram connectionHoldTime = new Histogram(LATENCY_BUCKETS_MS);
+    private final LongAdder totalStatements = new LongAdder();
+    private final LongAdder totalErrors = new LongAdder();
+    private final LongAdder totalRows = new LongAdder();
+    private final LongAdder totalMillis = new LongAdder();
+    private final ConcurrentHashMap<String, StatementStats> statements = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, EndpointStats> endpoints = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, NPlusOneSuspect> nPlusOneSuspects = new ConcurrentHashMap<>();
+    private final Deque<Map<String, Object>> slowQueries = new ConcurrentLinkedDeque<>();
+    private final ConcurrentHashMap<String, Long> connectionAcquiredAt = new ConcurrentHashMap<>();
+
+    private final JdbcLifecycleEventListenerAdapter listener = new JdbcLifecycleEventListenerAdapter() {
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            recordExecution(execInfo, queryInfoList);
+        }
+
+        @Override
+        public void afterNext(MethodExecutionContext executionContext) {
+            if (Boolean.TRUE.equals(executionContext.getResult())) {
+                recordRows(1);
+            }
+        }
+
+        @Override
+        public void afterGetConnection(MethodExecutionContext executionContext) {
+            if (executionContext.getConnectionInfo() != null) {
+                connectionAcquiredAt.put(executionContext.getConnectionInfo().getConnectionId(), System.nanoTime());
+            }
+        }
+
+        @Override
+        public void afterClose(MethodExecutionContext executionContext) {
+            if (executionContext.getTarget() instanceof Connection && executionContext.getConnectionInfo() != null) {
+                Long acquiredAt = connectionAcquiredAt.remove(executionContext.getConnectionInfo().getConnectionId());
+                if (acquiredAt != null) {
+                    long heldNanos = System.nanoTime() - acquiredAt;
+                    connectionHoldTime.record(heldNanos / 1_000_000);
+                    RequestContext context = CURRENT_REQUEST.get();
+                    if (context != null) {
+                        context.connectionHoldNanos += heldNanos;
+                    }
+                }
+            }
+        }
+    };
+
+    // 注册到 datasource-proxy 的监听器
+    public JdbcLifecycleEventListenerAdapter getListener() {
+        return listener;
+    }
+
+    // 请求开始时调用，之后本线程执行的语句都计入该请求；request 用于慢查询记录，如 "GET /course/list"
+    public void beginRequest(String request) {
+        CURRENT_REQUEST.set(new RequestContext(request));
+    }
+
+    // 请求结束时调用，route 为路由模板，如 "/course/list"，统计按 "GET /course/list" 归类
+    public void endRequest(String method, String route) {
+        RequestContext context = CURRENT_REQUEST.get();
+        CURRENT_REQUEST.remove();
+        LAST_STATEMENT.remove();
+        if (context == null) {
+            return;
+        }
+        String endpoint = method + " " + route;
+        EndpointStats stats = endpoints.computeIfAbsent(endpoint,
+                key -> new EndpointStats(key, connectionHoldTimer(method, route)));
+        stats.record(context.statements, context.connectionHoldNanos);
+        for (Map.Entry<String, Integer> entry : context.executionsBySql.entrySet()) {
+            if (entry.getValue() >= nPlusOneThreshold) {
+                recordNPlusOne(endpoint, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    private Timer connectionHoldTimer(String method, String route) {
+        MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return null;
+        }
+        return Timer.builder("sql.connection.hold")
+                .description("每个请求占用数据库连接的总时长")
+                .tag("method", method)
+                .tag("uri", route)
+                .register(registry);
+    }
+
+    private void recordExecution(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsed = execInfo.getElapsedTime();
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        long affectedRows = affectedRows(execInfo.getResult());
+
+        totalStatements.increment();
+        totalMillis.add(elapsed);
+        totalRows.add(affectedRows);
+        if (!execInfo.isSuccess()) {
+            totalErrors.increment();
+        }
+        latency.record(elapsed);
+
+        StatementStats stats = statements.get(sql);
+        if (stats == null && statements.size() < MAX_TRACKED_STATEMENTS) {
+            stats = statements.computeIfAbsent(sql, StatementStats::new);
+        }
+        if (stats != null) {
+            stats.record(elapsed, affectedRows, execInfo.isSuccess());
+        }
+        LAST_STATEMENT.set(stats);
+
+        RequestContext context = CURRENT_REQUEST.get();
+        if (context != null) {
+            context.statements++;
+            context.executionsBySql.merge(sql, 1, Integer::sum);
+        }
+
+        if (elapsed >= slowQueryMillis) {
+            String request = context != null ? context.request : null;
+            log.warn("慢查询 {}ms, request={}: {}", elapsed, request, sql);
+            Map<String, Object> slow = new LinkedHashMap<>();
+            slow.put("time", LocalDateTime.now().toString());
+            slow.put("elapsedMillis", elapsed);
+            slow.put("request", request);
+            slow.put("thread", Thread.currentThread().getName());
+            slow.put("sql", sql);
+            slowQueries.addFirst(slow);
+            while (slowQueries.size() > MAX_SLOW_QUERIES) {
+                slowQueries.pollLast();
+            }
+        }
+    }
+
+    private void recordRows(long rows) {
+        totalRows.add(rows);
+        StatementStats stats = LAST_STATEMENT.get();
+        if (stats != null) {
+            stats.rows.add(rows);
+        }
+    }
+
+    private void recordNPlusOne(String endpoint, String sql, int executions) {
+        String key = endpoint + "\n" + sql;
+        NPlusOneSuspect suspect = nPlusOneSuspects.get(key);
+        if (suspect == null) {
+            if (nPlusOneSuspects.size() >= MAX_N_PLUS_ONE_SUSPECTS) {
+                return;
+            }
+            suspect = nPlusOneSuspects.computeIfAbsent(key, k -> new NPlusOneSuspect(endpoint, sql));
+            log.warn("疑似 N+1 查询: {} 在一次请求中执行 {} 次: {}", endpoint, executions, sql);
+        }
+        suspect.record(executions);
+    }
+
+    // executeUpdate 返回影响行数，批处理返回每条语句的影响行数
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof Long count) {
+            return Math.max(count, 0);
+        }
+        if (result instanceof int[] counts) {
+            long sum = 0;
+            for (int count : counts) {
+                sum += Math.max(count, 0);
+            }
+            return sum;
+        }
+        return 0;
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("statements", totalStatements.sum());
+        totals.put("errors", totalErrors.sum());
+        totals.put("rows", totalRows.sum());
+        totals.put("totalMillis", totalMillis.sum());
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("totals", totals);
+        result.put("latencyHistogramMs", latency.snapshot());
+        result.put("connectionHoldTimeHistogramMs", connectionHoldTime.snapshot());
+        result.put("slowQueryThresholdMs", slowQueryMillis);
+        result.put("nPlusOneThreshold", nPlusOneThreshold);
+        result.put("topStatementsByTime", statements.values().stream()
+                .sorted(Comparator.comparingLong((StatementStats s) -> s.totalMillis.sum()).reversed())
+                .limit(TOP_STATEMENTS)
+                .map(StatementStats::snapshot)
+                .collect(Collectors.toList()));
+        result.put("endpoints", endpoints.values().stream()
+                .sorted(Comparator.comparingLong((EndpointStats e) -> e.statements.sum()).reversed())
+                .map(EndpointStats::snapshot)
+                .collect(Collectors.toList()));
+        result.put("nPlusOneSuspects", nPlusOneSuspects.values().stream()
+                .map(NPlusOneSuspect::snapshot)
+                .collect(Collectors.toList()));
+        result.put("slowQueries", new ArrayList<>(slowQueries));
+        return result;
+    }
+
+    public void reset() {
+        latency.reset();
+        connectionHoldTime.reset();
+        totalStatements.reset();
+        totalErrors.reset();
+        totalRows.reset();
+        totalMillis.reset();
+        statements.clear();
+        endpoints.clear();
+        nPlusOneSuspects.clear();
+        slowQueries.clear();
+    }
+
+    private static final class RequestContext {
+        final String request;
+        int statements;
+        long connectionHoldNanos;
+        final Map<String, Integer> executionsBySql = new HashMap<>();
+
+        RequestContext(String request) {
+            this.request = request;
+        }
+    }
+
+    private static final class StatementStats {
+        final String sql;
+        final LongAdder count = new LongAdder();
+        final LongAdder errors = new LongAdder();
+        final LongAdder totalMillis = new LongAdder();
+        final LongAdder rows = new LongAdder();
+        final AtomicLong maxMillis = new AtomicLong();
+
+        StatementStats(String sql) {
+            this.sql = sql;
+        }
+
+        void record(long elapsed, long affectedRows, boolean success) {
+            count.increment();
+            totalMillis.add(elapsed);
+            rows.add(affectedRows);
+            if (!success) {
+                errors.increment();
+            }
+            maxMillis.accumulateAndGet(elapsed, Math::max);
+        }
+
+        Map<String, Object> snapshot() {
+            long executions = count.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("sql", sql);
+            map.put("count", executions);
+            map.put("errors", errors.sum());
+            map.put("totalMillis", totalMillis.sum());
+            map.put("avgMillis", executions == 0 ? 0 : (double) totalMillis.sum() / executions);
+            map.put("maxMillis", maxMillis.get());
+            map.put("rows", rows.sum());
+            return map;
+        }
+    }
+
+    private static final class EndpointStats {
+        final String endpoint;
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final AtomicLong maxStatements = new AtomicLong();
+        final Histogram statementsPerRequest = new Histogram(STATEMENTS_PER_REQUEST_BUCKETS);
+        final LongAdder connectionHoldMillis = new LongAdder();
+        final AtomicLong maxConnectionHoldMillis = new AtomicLong();
+        final Histogram connectionHoldPerRequest = new Histogram(LATENCY_BUCKETS_MS);
+        final Timer connectionHoldTimer;
+
+        EndpointStats(String endpoint, Timer connectionHoldTimer) {
+            this.endpoint = endpoint;
+            this.connectionHoldTimer = connectionHoldTimer;
+        }
+
+        void record(int statementCount, long connectionHoldNanos) {
+            long holdMillis = connectionHoldNanos / 1_000_000;
+            requests.increment();
+            statements.add(statementCount);
+            maxStatements.accumulateAndGet(statementCount, Math::max);
+            statementsPerRequest.record(statementCount);
+            connectionHoldMillis.add(holdMillis);
+            maxConnectionHoldMillis.accumulateAndGet(holdMillis, Math::max);
+            connectionHoldPerRequest.record(holdMillis);
+            if (connectionHoldTimer != null) {
+                connectionHoldTimer.record(connectionHoldNanos, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            long requestCount = requests.sum();
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("endpoint", endpoint);
+            map.put("requests", requestCount);
+            map.put("statements", statements.sum());
+            map.put("avgStatementsPerRequest", requestCount == 0 ? 0 : (double) statements.sum() / requestCount);
+            map.put("maxStatementsPerRequest", maxStatements.get());
+            map.put("statementsPerRequestHistogram", statementsPerRequest.snapshot());
+            map.put("avgConnectionHoldMillisPerRequest", requestCount == 0 ? 0 : (double) connectionHoldMillis.sum() / requestCount);
+            map.put("maxConnectionHoldMillisPerRequest", maxConnectionHoldMillis.get());
+            map.put("connectionHoldPerRequestHistogramMs", connectionHoldPerRequest.snapshot());
+            return map;
+        }
+    }
+
+    private static final class NPlusOneSuspect {
+        final String endpoint;
+        final String sql;
+        final LongAdder occurrences = new LongAdder();
+        final AtomicLong maxExecutionsPerRequest = new AtomicLong();
+
+        NPlusOneSuspect(String endpoint, String sql) {
+            this.endpoint = endpoint;
+            this.sql = sql;
+        }
+
+        void record(int executions) {
+            occurrences.increment();
+            maxExecutionsPerRequest.accumulateAndGet(executions, Math::max);
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("endpoint", endpoint);
+            map.put("sql", sql);
+            map.put("occurrences", occurrences.sum());
+            map.put("maxExecutionsPerRequest", maxExecutionsPerRequest.get());
+            return map;
+        }
+    }
+
+    // 固定桶直方图，桶上界包含在内，最后一个桶为 "+Inf"
+    private static final class Histogram {
+        final long[] bounds;
+        final LongAdder[] counts;
+
+        Histogram(long[] bounds) {
+            this.bounds = bounds;
+            this.counts = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        void record(long value) {
+            int i = 0;
+            while (i < bounds.length && value > bounds[i]) {
+                i++;
+            }
+            counts[i].increment();
+        }
+
+        Map<String, Long> snapshot() {
+            Map<String, Long> map = new LinkedHashMap<>();
+            for (int i = 0; i < bounds.length; i++) {
+                map.put("le " + bounds[i], counts[i].sum());
+            }
+            map.put("+Inf", counts[bounds.length].sum());
+            return map;
+        }
+
+        void reset() {
+            for (LongAdder count : counts) {
+                count.reset();
+            }
+        }
+    }
+}
@@ -1,17 +1,32 @@
 package org.example.student.service;
 
+import org.example.student.dto.EnrollmentItemResult;
+import org.example.student.dto.StudentCourseDTO;
 import org.example.student.entity.StudentCourse;
 import org.example.student.entity.Student;
 import org.example.student.entity.Course;
+import org.example.student.event.CourseChangedEvent;
 import org.example.student.repository.StudentCourseRepository;
 import org.example.student.repository.CourseRepository;
 import org.example.student.repository.StudentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 public class StudentCourseService {
@@ -25,8 +40,32 @@ public class StudentCourseService {
     @Autowired
     private StudentRepository studentRepository;
     
-    public List<StudentCourse> getCoursesByStudentId(Long studentId) {
-        return studentCourseRepository.findByStudentId(studentId);
+    @Autowired
+    private CourseSeatService courseSeatService;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // 每名学生可选的总学分上限，0 表示不限
+    @Value("${enrollment.max-credits:0}")
+    private BigDecimal maxCredits;
+    
+    // 单次批量选课/退课允许的最大课程数
+    public static final int MAX_BATCH_SIZE = 50;
+    
+    // 某学生的选课列表：学生、专业、课程由实体图一次取出，在服务内转换为 DTO，返回后不再触发懒加载
+    @Transactional(readOnly = true)
+    public List<StudentCourseDTO> getCoursesByStudentId(Long studentId) {
+        return studentCourseRepository.findByStudentId(studentId).stream()
+                .map(StudentCourseDTO::new)
+                .collect(Collectors.toList());
+    }
+    
+    // 分页获取某门课程的选课名单（关联通过 JOIN FETCH 取出）
+    @Transactional(readOnly = true)
+    public Page<StudentCourseDTO> getEnrollmentsByCourseId(Long courseId, int page, int size) {
+        return studentCourseRepository.findPageByCourseId(courseId, PageRequest.of(page, size))
+                .map(StudentCourseDTO::new);
     }
     
     @Transactional
@@ -44,12 +83,35 @@ public class StudentCourseService {
             return false; // 已经选过这门课
         }
         
+        // 按已加载的总学分预先判断学分上限，明显超出时不再占用名额
+        BigDecimal credits = courseOpt.get().getCredits();
+        if (exceedsMaxCredits(studentOpt.get().getTotalCredits(), credits)) {
+            throw new IllegalStateException("超出学分上限");
+        }
+        
+        // 先在内存中预占名额（事务回滚时归还），课程已满时直接拒绝，不再访问数据库
+        if (!courseSeatService.tryAcquire(courseId)) {
+            throw new IllegalStateException("课程名额已满");
+        }
+        
+        // 再由数据库条件更新确认名额，内存计数与数据库不一致时以数据库为准
+        if (courseRepository.reserveSeat(courseId) == 0) {
+            courseSeatService.invalidate(courseId);
+            throw new IllegalStateException("课程名额已满");
+        }
+        
+        // 与选课记录在同一事务内累加总学分，上限由条件更新保证；先锁课程行再锁学生行，与退课、批量选课的加锁顺序一致
+        if (!addCredits(studentId, credits)) {
+            throw new IllegalStateException("超出学分上限");
+        }
+        
         // 创建选课记录
         StudentCourse studentCourse = new StudentCourse();
         studentCourse.setStudent(studentOpt.get());
         studentCourse.setCourse(courseOpt.get());
         
         studentCourseRepository.save(studentCourse);
+        eventPublisher.publishEvent(CourseChangedEvent.seats(List.of(courseId)));
         return true;
     }
     
@@ -59,17 +121,153 @@ public class StudentCourseService {
         
         if (studentCourseOpt.isPresent()) {
             studentCourseRepository.delete(studentCourseOpt.get());
+            courseRepository.releaseSeat(courseId);
+            studentRepository.subtractCreditsOfCourses(studentId, List.of(courseId));
+            courseSeatService.releaseAfterCommit(courseId);
+            eventPublisher.publishEvent(CourseChangedEvent.seats(List.of(courseId)));
             return true;
         }
         
         return false;
     }
     
+    /**
+     * 批量选课：在一个事务内处理多门课程，返回每门课程的处理结果。
+     * 学生、课程和已选记录都用集合查询一次校验，插入在提交时按 JDBC 批处理发送；
+     * 名额仍逐门做条件更新，已满的课程只记为失败，不影响其他课程。
+     * 学分上限按开始时读到的总学分在内存中逐门判断，最后用一条条件更新累加本次选中的学分。
+     */
+    @Transactional
+    public List<EnrollmentItemResult> selectCourses(Long studentId, List<Long> courseIds) {
+        Set<Long> requested = distinct(courseIds);
+        BigDecimal totalCredits = studentRepository.findTotalCreditsById(studentId);
+        if (totalCredits == null) {
+            throw new IllegalArgumentException("学生不存在");
+        }
+        
+        Map<Long, Course> courses = courseRepository.findAllById(requested).stream()
+                .collect(Collectors.toMap(Course::getId, Function.identity()));
+        courseSeatService.warmUp(courses.values());
+        Set<Long> alreadySelected = new HashSet<>(studentCourseRepository.findSelectedCourseIds(studentId, requested));
+        Student student = studentRepository.getReferenceById(studentId);
+        
+        List<EnrollmentItemResult> results = new ArrayList<>(requested.size());
+        List<StudentCourse> enrollments = new ArrayList<>();
+        BigDecimal addedCredits = BigDecimal.ZERO;
+        for (Long courseId : requested) {
+            Course course = courses.get(courseId);
+            if (course == null) {
+                results.add(EnrollmentItemResult.fail(courseId, "课程不存在"));
+                continue;
+            }
+            if (alreadySelected.contains(courseId)) {
+                results.add(EnrollmentItemResult.fail(courseId, "已选过该课程"));
+                continue;
+            }
+            if (exceedsMaxCredits(totalCredits.add(addedCredits), course.getCredits())) {
+                results.add(EnrollmentItemResult.fail(courseId, "超出学分上限"));
+                continue;
+            }
+            if (!courseSeatService.tryAcquire(courseId)) {
+                results.add(EnrollmentItemResult.fail(courseId, "课程名额已满"));
+                continue;
+            }
+            if (courseRepository.reserveSeat(courseId) == 0) {
+                // 内存计数与数据库不一致，以数据库为准
+                courseSeatService.invalidate(courseId);
+                results.add(EnrollmentItemResult.fail(courseId, "课程名额已满"));
+                continue;
+            }
+            
+            StudentCourse studentCourse = new StudentCourse();
+            studentCourse.setStudent(student);
+            studentCourse.setCourse(course);
+            enrollments.add(studentCourse);
+            addedCredits = addedCredits.add(course.getCredits());
+            results.add(EnrollmentItemResult.ok(courseId, "选课成功"));
+        }
+        
+        // 同一学生的其他选课请求并发提交时，开始读到的总学分可能已过期，此时整批回滚由前端重试
+        if (!enrollments.isEmpty() && !addCredits(studentId, addedCredits)) {
+            throw new IllegalStateException("超出学分上限，请刷新后重试");
+        }
+        studentCourseRepository.saveAll(enrollments);
+        if (!enrollments.isEmpty()) {
+            eventPublisher.publishEvent(CourseChangedEvent.seats(
+                    enrollments.stream().map(sc -> sc.getCourse().getId()).collect(Collectors.toList())));
+        }
+        return results;
+    }
+    
+    /**
+     * 批量退课：一次查出选课记录，用一条 DELETE 删除，并用一条 UPDATE 归还名额
+     */
+    @Transactional
+    public List<EnrollmentItemResult> dropCourses(Long studentId, List<Long> courseIds) {
+        Set<Long> requested = distinct(courseIds);
+        List<StudentCourse> enrollments = studentCourseRepository.findByStudentIdAndCourseIdIn(studentId, requested);
+        Set<Long> dropped = enrollments.stream()
+                .map(sc -> sc.getCourse().getId())
+                .collect(Collectors.toSet());
+        
+        if (!enrollments.isEmpty()) {
+            studentCourseRepository.deleteAllInBatch(enrollments);
+            courseRepository.releaseSeats(dropped);
+            studentRepository.subtractCreditsOfCourses(studentId, dropped);
+            dropped.forEach(courseSeatService::releaseAfterCommit);
+            eventPublisher.publishEvent(CourseChangedEvent.seats(dropped));
+        }
+        
+        return requested.stream()
+                .map(courseId -> dropped.contains(courseId)
+                        ? EnrollmentItemResult.ok(courseId, "退课成功")
+                        : EnrollmentItemResult.fail(courseId, "未选过该课程"))
+                .collect(Collectors.toList());
+    }
+    
+    // 去重并保持请求顺序，同时限制单次批量的规模
+    private Set<Long> distinct(List<Long> courseIds) {
+        if (courseIds == null || courseIds.isEmpty()) {
+            throw new IllegalArgumentException("课程列表不能为空");
+        }
+        Set<Long> ids = new LinkedHashSet<>();
+        for (Long courseId : courseIds) {
+            if (courseId != null) {
+                ids.add(courseId);
+            }
+        }
+        if (ids.isEmpty()) {
+            throw new IllegalArgumentException("课程列表不能为空");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("单次最多处理" + MAX_BATCH_SIZE + "门课程");
+        }
+        return ids;
+    }
+    
+    // 直接读取预先维护的总学分，不再对选课记录做 JOIN + SUM
+    @Transactional(readOnly = true)
     public Double getTotalCreditsByStudentId(Long studentId) {
-        Double total = studentCourseRepository.sumCreditsByStudentId(studentId);
-        return total != null ? total : 0.0;
+        BigDecimal total = studentRepository.findTotalCreditsById(studentId);
+        return total != null ? total.doubleValue() : 0.0;
+    }
+    
+    private boolean hasMaxCredits() {
+        return maxCredits != null && maxCredits.signum() > 0;
+    }
+    
+    private boolean exceedsMaxCredits(BigDecimal current, BigDecimal credits) {
+        return hasMaxCredits() && current.add(credits).compareTo(maxCredits) > 0;
+    }
+    
+    private boolean addCredits(Long studentId, BigDecimal credits) {
+        if (hasMaxCredits()) {
+            return studentRepository.addCreditsWithinLimit(studentId, credits, maxCredits) > 0;
+        }
+        return studentRepository.addCredits(studentId, credits) > 0;
     }
     
+    @Transactional(readOnly = true)
     public boolean existsByCourseId(Long courseId) {
         return studentCourseRepository.existsByCourseId(courseId);
     }
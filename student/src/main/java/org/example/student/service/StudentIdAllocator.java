@@ -0,0 +1,140 @@
+package org.example.student.service;
+
+import jakarta.annotation.PostConstruct;
+import org.example.student.entity.StudentIdCounter;
+import org.example.student.repository.MajorRepository;
+import org.example.student.repository.StudentIdCounterRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 学号序号分配器（hi/lo）
+ *
+ * 每个（专业, 入学年份）在 student_id_counter 表中有一行计数器，分配器每次把计数器推进一段（block-size），
+ * 段内的序号在内存中用原子自增分配，只有段用完的线程才会去数据库取下一段。
+ * 取段在独立的短事务中完成，行锁只持有一条 UPDATE 的时间，注册事务之间不再竞争 MAX(sequence_number)。
+ * 代价是应用重启时当前段里未用完的序号会被跳过，学号可能出现空洞。
+ *
+ * 注意：取段需要额外占用一个数据库连接，调用方不应在持有事务（连接）时调用 {@link #next(Long, int)}，
+ * 否则大量线程同时等待取段时可能把连接池耗尽。
+ */
+@Service
+public class StudentIdAllocator {
+
+    @Value("${student-id.block-size:10}")
+    private int blockSize;
+
+    @Autowired
+    private StudentIdCounterRepository counterRepository;
+
+    @Autowired
+    private MajorRepository majorRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    private final ConcurrentHashMap<StudentIdCounter.Key, BlockHolder> holders = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * 分配下一个序号，同一专业和年份内唯一且从 1 开始递增
+     */
+    public int next(Long majorId, int year) {
+        BlockHolder holder = holders.computeIfAbsent(new StudentIdCounter.Key(majorId, year), BlockHolder::new);
+        while (true) {
+            Block block = holder.current;
+            int value = block.next.getAndIncrement();
+            if (value < block.end) {
+                return value;
+            }
+            // 当前段已用完，只让一个线程取新段，其余线程等它换上新段后重试。
+            // 取段要访问数据库，用 ReentrantLock 而不是 synchronized，虚拟线程等待时不会钉住载体线程
+            holder.lock.lock();
+            try {
+                if (holder.current == block) {
+                    holder.current = fetchBlock(holder.key);
+                }
+            } finally {
+                holder.lock.unlock();
+            }
+        }
+    }
+
+    // 生成学号：专业代码+入学年份+序号（至少3位），格式如：CS2023001
+    public static String formatStudentId(String majorCode, int year, int sequence) {
+        return majorCode.toUpperCase() + year + String.format("%03d", sequence);
+    }
+
+    /**
+     * 一次分配 count 个连续序号（批量导入用），直接推进计数器，不经过内存中的段
+     *
+     * @return 第一个序号，本次分配的范围为 [返回值, 返回值 + count)
+     */
+    public int allocate(Long majorId, int year, int count) {
+        return fetchBlock(new StudentIdCounter.Key(majorId, year), count).next.get();
+    }
+
+    private Block fetchBlock(StudentIdCounter.Key key) {
+        return fetchBlock(key, blockSize);
+    }
+
+    private Block fetchBlock(StudentIdCounter.Key key, int size) {
+        try {
+            return transactionTemplate.execute(status -> advanceOrCreate(key, size));
+        } catch (DataIntegrityViolationException e) {
+            // 其他实例抢先创建了计数器行，此时计数器已存在，直接推进即可
+            return transactionTemplate.execute(status -> advanceOrCreate(key, size));
+        }
+    }
+
+    private Block advanceOrCreate(StudentIdCounter.Key key, int size) {
+        if (counterRepository.advance(key, size) > 0) {
+            int end = counterRepository.findNextValue(key);
+            return new Block(end - size, end);
+        }
+        // 首次为该专业和年份分配时，从已有学生的最大序号之后开始，兼容计数器表建立前的数据
+        Integer maxSequence = majorRepository.findMaxSequenceNumberByMajorIdAndYear(key.getMajorId(), key.getEnrollmentYear());
+        int first = (maxSequence == null) ? 1 : maxSequence + 1;
+        counterRepository.saveAndFlush(new StudentIdCounter(key, first + size));
+        return new Block(first, first + size);
+    }
+
+    private static final class BlockHolder {
+        final StudentIdCounter.Key key;
+        final ReentrantLock lock = new ReentrantLock();
+        volatile Block current = Block.EMPTY;
+
+        BlockHolder(StudentIdCounter.Key key) {
+            this.key = key;
+        }
+    }
+
+    // 一段序号 [next, end)
+    private static final class Block {
+        static final Block EMPTY = new Block(0, 0);
+
+        final AtomicInteger next;
+        final int end;
+
+        Block(int start, int end) {
+            this.next = new AtomicInteger(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,481 @@
+package org.example.student.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.student.dto.StudentImportEvent;
+import org.example.student.entity.Account;
+import org.example.student.entity.Major;
+import org.example.student.entity.StudentIdCounter;
+import org.example.student.repository.MajorRepository;
+import org.example.student.repository.StudentRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * 学生批量导入服务
+ *
+ * 逐行解析 CSV 或 NDJSON，每 {@value #CHUNK_SIZE} 行为一块：手机号唯一性每块一次集合查询，
+ * 学号序号按（专业, 年份）整段分配，学生和账户用 JDBC 批量插入，每块一个事务，某块写入失败只影响该块。
+ * 失败行和进度通过回调逐条输出，调用方可以直接写入响应流。
+ */
+@Slf4j
+@Service
+public class StudentImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final int CHUNK_SIZE = 1000;
+
+    // 与单个注册一致的默认密码，学生首次登录时强制修改
+    private static final String DEFAULT_PASSWORD = "123456";
+
+    private static final String INSERT_STUDENT = "INSERT INTO student (student_id, name, age, phone, enrollment_date, " +
+            "sequence_number, major_id, created_time, updated_time) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_ACCOUNT = "INSERT INTO account (username, password, role, first_login, student_id, " +
+            "created_time, updated_time) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private MajorRepository majorRepository;
+
+    @Autowired
+    private StudentIdAllocator studentIdAllocator;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * 导入学生并创建账户
+     *
+     * CSV 首行为表头，需要 name、age、phone、enrollmentDate 以及 majorId 或 majorCode 列；
+     * NDJSON 每行一个同名字段的 JSON 对象。入学日期格式为 yyyy-MM-dd。
+     *
+     * @param listener 接收失败行（error）和每块处理后的进度（progress）
+     * @return 导入结束时的汇总（done）
+     */
+    public StudentImportEvent importStudents(Format format, InputStream inputStream,
+                                             Consumer<StudentImportEvent> listener) throws IOException {
+        return importStudents(open(format, inputStream), listener);
+    }
+
+    /**
+     * 打开导入数据：CSV 在这里读取并校验表头，表头不合法时抛出 IllegalArgumentException，
+     * 调用方可以在开始输出导入结果之前以 400 拒绝请求
+     */
+    public Source open(Format format, InputStream inputStream) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+        return new Source(format == Format.CSV ? new CsvRowReader(reader) : new NdjsonRowReader(reader));
+    }
+
+    public StudentImportEvent importStudents(Source source, Consumer<StudentImportEvent> listener) throws IOException {
+        RowReader rows = source.rows;
+        ImportContext context = new ImportContext(listener);
+
+        List<Row> chunk = new ArrayList<>(CHUNK_SIZE);
+        Row row;
+        while ((row = rows.next()) != null) {
+            chunk.add(row);
+            if (chunk.size() == CHUNK_SIZE) {
+                processChunk(chunk, context);
+                chunk.clear();
+                listener.accept(context.summary("progress"));
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, context);
+            listener.accept(context.summary("progress"));
+        }
+        StudentImportEvent summary = context.summary("done");
+        log.info("批量导入学生完成: processed={}, imported={}, failed={}, elapsed={}ms",
+                summary.getProcessed(), summary.getImported(), summary.getFailed(), summary.getElapsedMillis());
+        return summary;
+    }
+
+    private void processChunk(List<Row> chunk, ImportContext context) {
+        List<Candidate> candidates = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            context.processed++;
+            Candidate candidate = new Candidate(row.line);
+            String error = validate(row, candidate, context);
+            if (error != null) {
+                context.fail(row.line, error);
+            } else {
+                candidates.add(candidate);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // 一次查询检查整块的手机号
+        Set<String> existingPhones = new HashSet<>(studentRepository.findExistingPhones(
+                candidates.stream().map(c -> c.phone).collect(Collectors.toList())));
+        candidates.removeIf(c -> {
+            if (existingPhones.contains(c.phone)) {
+                context.fail(c.line, "手机号已被使用");
+                return true;
+            }
+            return false;
+        });
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        // 按专业和年份整段分配序号，在写入事务之外完成，避免占用两个连接
+        Map<StudentIdCounter.Key, List<Candidate>> groups = candidates.stream()
+                .collect(Collectors.groupingBy(c -> new StudentIdCounter.Key(c.major.getId(), c.enrollmentDate.getYear()),
+                        LinkedHashMap::new, Collectors.toList()));
+        for (Map.Entry<StudentIdCounter.Key, List<Candidate>> group : groups.entrySet()) {
+            int year = group.getKey().getEnrollmentYear();
+            int sequence = studentIdAllocator.allocate(group.getKey().getMajorId(), year, group.getValue().size());
+            for (Candidate candidate : group.getValue()) {
+                candidate.sequence = sequence++;
+                candidate.studentId = StudentIdAllocator.formatStudentId(candidate.major.getMajorCode(), year, candidate.sequence);
+            }
+        }
+
+        // 每个账户的初始密码单独加盐哈希，在密码服务的有界线程池中计算，同样放在写入事务之外
+        List<String> passwords = passwordService.encodeEach(DEFAULT_PASSWORD, candidates.size());
+        for (int i = 0; i < candidates.size(); i++) {
+            candidates.get(i).encodedPassword = passwords.get(i);
+        }
+
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> insert(candidates));
+            context.imported += candidates.size();
+        } catch (DataAccessException e) {
+            // 检查之后其他请求抢先注册了相同手机号等情况，整块回滚，逐行报告
+            String message = "写入失败: " + e.getMostSpecificCause().getMessage();
+            candidates.forEach(c -> context.fail(c.line, message));
+        }
+    }
+
+    private void insert(List<Candidate> candidates) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> students = new ArrayList<>(candidates.size());
+        for (Candidate c : candidates) {
+            students.add(new Object[]{c.studentId, c.name, c.age, c.phone, java.sql.Date.valueOf(c.enrollmentDate),
+                    c.sequence, c.major.getId(), now, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_STUDENT, students);
+
+        // 取回自增主键，用于账户的外键
+        Map<String, Long> ids = new HashMap<>();
+        namedParameterJdbcTemplate.query("SELECT id, student_id FROM student WHERE student_id IN (:studentIds)",
+                Map.of("studentIds", candidates.stream().map(c -> c.studentId).collect(Collectors.toList())),
+                rs -> {
+                    ids.put(rs.getString("student_id"), rs.getLong("id"));
+                });
+
+        List<Object[]> accounts = new ArrayList<>(candidates.size());
+        for (Candidate c : candidates) {
+            accounts.add(new Object[]{c.studentId, c.encodedPassword, Account.Role.STUDENT.name(), true,
+                    ids.get(c.studentId), now, now});
+        }
+        jdbcTemplate.batchUpdate(INSERT_ACCOUNT, accounts);
+    }
+
+    // 校验并填充 candidate，返回错误信息；校验通过返回 null
+    private String validate(Row row, Candidate candidate, ImportContext context) {
+        if (row.error != null) {
+            return row.error;
+        }
+        if (isBlank(row.name)) {
+            return "姓名不能为空";
+        }
+        if (row.name.trim().length() > 50) {
+            return "姓名过长";
+        }
+        candidate.name = row.name.trim();
+
+        try {
+            candidate.age = Integer.parseInt(row.age.trim());
+        } catch (RuntimeException e) {
+            return "年龄格式不正确";
+        }
+        if (candidate.age <= 0) {
+            return "年龄格式不正确";
+        }
+
+        if (isBlank(row.phone)) {
+            return "手机号不能为空";
+        }
+        candidate.phone = row.phone.trim();
+        if (candidate.phone.length() > 20) {
+            return "手机号过长";
+        }
+
+        try {
+            candidate.enrollmentDate = LocalDate.parse(row.enrollmentDate.trim());
+        } catch (DateTimeParseException | NullPointerException e) {
+            return "入学日期格式不正确";
+        }
+
+        candidate.major = context.findMajor(row.majorId, row.majorCode);
+        if (candidate.major == null) {
+            return "专业不存在";
+        }
+
+        // 文件内重复的手机号只保留第一次出现的行
+        if (!context.seenPhones.add(candidate.phone)) {
+            return "手机号在导入文件中重复";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private final class ImportContext {
+        final Consumer<StudentImportEvent> listener;
+        final long startedAt = System.currentTimeMillis();
+        final Map<Long, Major> majorsById = new HashMap<>();
+        final Map<String, Major> majorsByCode = new HashMap<>();
+        final Set<String> seenPhones = new HashSet<>();
+        long processed;
+        long imported;
+        long failed;
+
+        ImportContext(Consumer<StudentImportEvent> listener) {
+            this.listener = listener;
+            for (Major major : majorRepository.findAll()) {
+                majorsById.put(major.getId(), major);
+                majorsByCode.put(major.getMajorCode().toUpperCase(Locale.ROOT), major);
+            }
+        }
+
+        Major findMajor(String majorId, String majorCode) {
+            if (!isBlank(majorId)) {
+                try {
+                    return majorsById.get(Long.parseLong(majorId.trim()));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+            return isBlank(majorCode) ? null : majorsByCode.get(majorCode.trim().toUpperCase(Locale.ROOT));
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            listener.accept(StudentImportEvent.error(line, message));
+        }
+
+        StudentImportEvent summary(String type) {
+            return StudentImportEvent.progress(type, processed, imported, failed, System.currentTimeMillis() - startedAt);
+        }
+    }
+
+    // 已打开（CSV 表头已校验）、尚未读取数据行的导入数据
+    public static final class Source {
+        private final RowReader rows;
+
+        private Source(RowReader rows) {
+            this.rows = rows;
+        }
+    }
+
+    // 解析出的一行原始数据，字段均为字符串，校验时再转换
+    private static final class Row {
+        final long line;
+        String name;
+        String age;
+        String phone;
+        String enrollmentDate;
+        String majorId;
+        String majorCode;
+        String error;
+
+        Row(long line) {
+            this.line = line;
+        }
+    }
+
+    // 通过校验、等待写入的一行
+    private static final class Candidate {
+        final long line;
+        String name;
+        int age;
+        String phone;
+        LocalDate enrollmentDate;
+        Major major;
+        int sequence;
+        String studentId;
+        String encodedPassword;
+
+        Candidate(long line) {
+            this.line = line;
+        }
+    }
+
+    private interface RowReader {
+        // 读取下一条数据，跳过空行，读完返回 null
+        Row next() throws IOException;
+    }
+
+    private static final class CsvRowReader implements RowReader {
+        private final BufferedReader reader;
+        private final Map<String, Integer> columns = new HashMap<>();
+        private long lineNumber;
+
+        CsvRowReader(BufferedReader reader) throws IOException {
+            this.reader = reader;
+            String header = reader.readLine();
+            lineNumber = 1;
+            if (header == null) {
+                throw new IllegalArgumentException("CSV 文件为空");
+            }
+            // 去掉 Excel 导出时带的 BOM
+            if (header.startsWith("\uFEFF")) {
+                header = header.substring(1);
+            }
+            List<String> names = splitCsvLine(header);
+            for (int i = 0; i < names.size(); i++) {
+                columns.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+            for (String required : List.of("name", "age", "phone", "enrollmentdate")) {
+                if (!columns.containsKey(required)) {
+                    throw new IllegalArgumentException("CSV 表头缺少列: " + required);
+                }
+            }
+            if (!columns.containsKey("majorid") && !columns.containsKey("majorcode")) {
+                throw new IllegalArgumentException("CSV 表头缺少列: majorId 或 majorCode");
+            }
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                List<String> values = splitCsvLine(line);
+                Row row = new Row(lineNumber);
+                row.name = value(values, "name");
+                row.age = value(values, "age");
+                row.phone = value(values, "phone");
+                row.enrollmentDate = value(values, "enrollmentdate");
+                row.majorId = value(values, "majorid");
+                row.majorCode = value(values, "majorcode");
+                return row;
+            }
+            return null;
+        }
+
+        private String value(List<String> values, String column) {
+            Integer index = columns.get(column);
+            return index == null || index >= values.size() ? null : values.get(index);
+        }
+
+        // 按 RFC 4180 拆分一行：支持双引号包裹的字段以及字段内的 "" 转义（不支持跨行字段）
+        private static List<String> splitCsvLine(String line) {
+            List<String> values = new ArrayList<>();
+            StringBuilder current = new StringBuilder();
+            boolean quoted = false;
+            for (int i = 0; i < line.length(); i++) {
+                char c = line.charAt(i);
+                if (quoted) {
+                    if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                        current.append('"');
+                        i++;
+                    } else if (c == '"') {
+                        quoted = false;
+                    } else {
+                        current.append(c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    values.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(c);
+                }
+            }
+            values.add(current.toString());
+            return values;
+        }
+    }
+
+    private final class NdjsonRowReader implements RowReader {
+        private final BufferedReader reader;
+        private long lineNumber;
+
+        NdjsonRowReader(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Row next() throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                Row row = new Row(lineNumber);
+                try {
+                    JsonNode node = objectMapper.readTree(line);
+                    row.name = text(node, "name");
+                    row.age = text(node, "age");
+                    row.phone = text(node, "phone");
+                    row.enrollmentDate = text(node, "enrollmentDate");
+                    row.majorId = text(node, "majorId");
+                    row.majorCode = text(node, "majorCode");
+                } catch (IOException e) {
+                    row.error = "JSON 格式不正确";
+                }
+                return row;
+            }
+            return null;
+        }
+
+        private String text(JsonNode node, String field) {
+            JsonNode value = node.get(field);
+            return value == null || value.isNull() ? null : value.asText();
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package org.example.student.service;
 
+import lombok.extern.slf4j.Slf4j;
+import org.example.student.dto.DeletionSummaryDTO;
 import org.example.student.dto.StudentRegisterRequest;
 import org.example.student.dto.StudentRegisterResponse;
 import org.example.student.entity.Account;
@@ -8,15 +10,17 @@ import org.example.student.entity.Student;
 import org.example.student.service.AccountService;
 import org.example.student.repository.MajorRepository;
 import org.example.student.repository.StudentRepository;
-import org.example.student.util.PasswordEncoder;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
+@Slf4j
 @Service
 public class StudentService {
 
@@ -29,9 +33,24 @@ public class StudentService {
     @Autowired
     private AccountService accountService;
 
-    @Transactional
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private StudentIdAllocator studentIdAllocator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private BulkDeletionService bulkDeletionService;
+
+    /*
+     * 注册流程中取号和密码哈希都不在事务里进行：取号可能需要单独的连接推进计数器，
+     * 哈希是纯 CPU 计算，都不应占着注册事务的数据库连接。只有最后写入学生和账户才开启事务。
+     */
     public StudentRegisterResponse registerStudent(StudentRegisterRequest request) throws Exception {
-        // 检查手机号是否重复
+        // 检查手机号是否重复（并发注册时由 phone 唯一约束兜底）
         if (studentRepository.existsByPhone(request.getPhone())) {
             throw new Exception("手机号已被使用");
         }
@@ -44,9 +63,10 @@ public class StudentService {
         Major major = majorOpt.get();
 
         // 生成学号
-        String studentId = generateStudentId(major, request.getEnrollmentDate());
-        
-        System.out.println("准备创建学生，学号为: " + studentId);
+        int year = request.getEnrollmentDate().getYear();
+        int sequence = studentIdAllocator.next(major.getId(), year);
+        String studentId = StudentIdAllocator.formatStudentId(major.getMajorCode(), year, sequence);
+        log.debug("学号分配完成: studentId={}", studentId);
 
         // 创建学生实体
         Student student = new Student();
@@ -56,28 +76,23 @@ public class StudentService {
         student.setEnrollmentDate(request.getEnrollmentDate());
         student.setMajor(major);
         student.setStudentId(studentId);
-        student.setSequenceNumber(extractSequenceNumber(studentId));
-
-        // 保存学生
-        student = studentRepository.save(student);
-        
-        System.out.println("学生保存成功，学生ID: " + student.getId());
+        student.setSequenceNumber(sequence);
 
         // 创建账户
         Account account = new Account();
         account.setUsername(studentId); // 使用学号作为用户名
-        String encodedPassword = PasswordEncoder.encode("123456"); // 默认密码
-        System.out.println("加密后的密码: " + encodedPassword);
+        String encodedPassword = passwordService.encode("123456"); // 默认密码
         account.setPassword(encodedPassword); // 默认密码
         account.setRole(Account.Role.STUDENT);
         account.setFirstLogin(true);
         account.setStudent(student);
-        
-        System.out.println("准备保存账户，用户名: " + account.getUsername() + ", 密码: " + account.getPassword());
 
-        accountService.save(account);
-        
-        System.out.println("账户保存成功");
+        // 保存学生和账户
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            studentRepository.save(student);
+            accountService.save(account);
+        });
+        log.info("学生注册成功: studentId={}, id={}", studentId, student.getId());
 
         // 返回结果
         StudentRegisterResponse response = new StudentRegisterResponse();
@@ -87,35 +102,12 @@ public class StudentService {
         return response;
     }
 
-    private String generateStudentId(Major major, java.time.LocalDate enrollmentDate) throws Exception {
-        int year = enrollmentDate.getYear();
-        Integer maxSequence = majorRepository.findMaxSequenceNumberByMajorIdAndYear(major.getId(), year);
-        int sequence = (maxSequence == null) ? 1 : maxSequence + 1;
-
-        // 格式化序号为3位数字，确保同一专业和年级内序号唯一
-        String sequenceStr = String.format("%03d", sequence);
-
-        // 生成学号：专业代码+入学年份+序号，格式如：CS2023001
-        String studentId = major.getMajorCode().toUpperCase() + year + sequenceStr;
-
-        // 检查学号是否已存在（理论上不应该存在）
-        if (studentRepository.findByStudentId(studentId).isPresent()) {
-            throw new Exception("学号生成冲突，请重试");
-        }
-
-        return studentId;
-    }
-
-    private int extractSequenceNumber(String studentId) {
-        // 从学号中提取序号部分（最后3位）
-        String sequenceStr = studentId.substring(Math.max(0, studentId.length() - 3));
-        return Integer.parseInt(sequenceStr);
-    }
-    
+    @Transactional(readOnly = true)
     public List<Major> getAllMajors() {
         return majorRepository.findAll();
     }
     
+    @Transactional(readOnly = true)
     public Optional<Major> getMajorById(Long id) {
         return majorRepository.findById(id);
     }
@@ -124,12 +116,14 @@ public class StudentService {
         return majorRepository.save(major);
     }
     
-    public void deleteMajor(Long id) {
-        majorRepository.deleteById(id);
+    // 删除专业及其下的学生、账号和选课记录（分段批量删除），专业不存在时返回空
+    public Optional<DeletionSummaryDTO> deleteMajor(Long id) {
+        return bulkDeletionService.deleteMajor(id);
     }
     
+    // EXISTS 查询，不加载专业下的学生集合
+    @Transactional(readOnly = true)
     public boolean hasStudentsInMajor(Long majorId) {
-        Optional<Major> majorOpt = majorRepository.findById(majorId);
-        return majorOpt.isPresent() && !majorOpt.get().getStudents().isEmpty();
+        return studentRepository.existsByMajorId(majorId);
     }
 }
\ No newline at end of file
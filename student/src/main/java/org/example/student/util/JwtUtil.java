@@ -1,6 +1,8 @@
 package org.example.student.util;
 
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -27,6 +29,9 @@ public class JwtUtil {
     // 设置token的过期时间（毫秒），这里是24小时
     private static final long EXPIRATION_TIME = 86400000; // 24小时
     
+    // 预先构建好的解析器，线程安全，所有验证共用一个实例
+    private static final JwtParser PARSER = Jwts.parserBuilder().setSigningKey(key).build();
+    
     /**
      * 为指定账户生成JWT token
      * 
@@ -56,6 +61,17 @@ public class JwtUtil {
                 .compact();
     }
     
+    /**
+     * 解析并验证JWT token，返回其中的声明
+     * 
+     * @param token JWT token字符串
+     * @return token中的声明（用户名、角色、过期时间等）
+     */
+    public static Claims parseToken(String token) {
+        // 使用共享的解析器验证签名并解析载荷
+        return PARSER.parseClaimsJws(token).getBody();
+    }
+    
     /**
      * 从JWT token中提取用户名
      * 
@@ -64,17 +80,7 @@ public class JwtUtil {
      */
     public static String getUsernameFromToken(String token) {
         // 解析JWT token并提取主体（用户名）
-        return Jwts.parserBuilder()
-                // 设置用于验证签名的密钥
-                .setSigningKey(key)
-                // 构建解析器
-                .build()
-                // 解析token
-                .parseClaimsJws(token)
-                // 获取载荷内容
-                .getBody()
-                // 提取主体（用户名）
-                .getSubject();
+        return parseToken(token).getSubject();
     }
     
     /**
@@ -87,13 +93,7 @@ public class JwtUtil {
                                                               MalformedJwtException, SignatureException {
         try {
             // 尝试解析token，如果解析成功说明token有效
-            Jwts.parserBuilder()
-                // 设置用于验证签名的密钥
-                .setSigningKey(key)
-                // 构建解析器
-                .build()
-                // 尝试解析token
-                .parseClaimsJws(token);
+            PARSER.parseClaimsJws(token);
             // 解析成功，token有效
             return true;
         } catch (ExpiredJwtException e) {
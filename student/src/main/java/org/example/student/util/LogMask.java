@@ -0,0 +1,25 @@
+package org.example.student.util;
+
+/**
+ * 日志脱敏工具
+ * 日志中只保留用户名、学号、手机号等标识的首尾少量字符，足以排查问题，又不会把完整信息写进日志文件。
+ * 密码、密文和 token 任何情况下都不应写入日志。
+ */
+public final class LogMask {
+
+    private static final String MASK = "****";
+
+    private LogMask() {
+    }
+
+    // 保留首尾各 2 个字符，长度不超过 4 的整体替换
+    public static String mask(String value) {
+        if (value == null) {
+            return null;
+        }
+        if (value.length() <= 4) {
+            return MASK;
+        }
+        return value.substring(0, 2) + MASK + value.substring(value.length() - 2);
+    }
+}
@@ -1,26 +1,36 @@
 package org.example.student.util;
 
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
 
+/**
+ * 旧版 MD5 密码摘要
+ * 新密码统一由 {@link org.example.student.service.PasswordService} 使用 PBKDF2 生成，
+ * 本类只用于校验历史 MD5 密文，校验通过后会在登录时自动升级为新格式。
+ */
 public class PasswordEncoder {
     
+    private static final Pattern MD5_HEX = Pattern.compile("[0-9a-fA-F]{32}");
+    
     public static String encode(String password) {
         try {
             MessageDigest md = MessageDigest.getInstance("MD5");
-            md.update(password.getBytes());
-            byte[] digest = md.digest();
-            StringBuilder sb = new StringBuilder();
-            for (byte b : digest) {
-                sb.append(String.format("%02x", b & 0xff));
-            }
-            return sb.toString();
+            byte[] digest = md.digest(password.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
         } catch (NoSuchAlgorithmException e) {
             throw new RuntimeException("无法加密密码", e);
         }
     }
     
     public static boolean matches(String rawPassword, String encodedPassword) {
-        return encode(rawPassword).equals(encodedPassword);
+        return encodedPassword != null && encode(rawPassword).equalsIgnoreCase(encodedPassword);
+    }
+    
+    // 判断是否为 MD5 密文（32 位十六进制字符串）
+    public static boolean isMd5(String encodedPassword) {
+        return encodedPassword != null && MD5_HEX.matcher(encodedPassword).matches();
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,19 @@
+package org.example.student.util;
+
+/**
+ * 密码哈希算法
+ */
+public interface PasswordHasher {
+
+    // 计算密码的哈希值，返回值包含算法参数和盐，可直接存入数据库
+    String hash(String rawPassword);
+
+    // 校验明文密码与已保存的哈希值是否一致
+    boolean matches(String rawPassword, String encodedPassword);
+
+    // 判断已保存的值是否由本算法生成
+    boolean supports(String encodedPassword);
+
+    // 判断已保存的哈希值是否低于当前强度，需要在下次登录时重新计算
+    boolean needsRehash(String encodedPassword);
+}
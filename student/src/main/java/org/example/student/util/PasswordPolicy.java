@@ -0,0 +1,39 @@
+package org.example.student.util;
+
+/**
+ * 密码复杂度规则：长度大于 7 位，且同时包含数字、英文字母和特殊字符
+ * 一次遍历完成全部检查，不再对同一密码执行四次正则匹配
+ */
+public final class PasswordPolicy {
+
+    public static final String REQUIREMENT = "密码必须包含数字、字母、特殊字符，且长度大于7位";
+
+    private static final int MIN_LENGTH = 8;
+    private static final String SPECIAL_CHARACTERS = "!@#$%^&*()_+-=[]{};':\"\\|,.<>/?";
+
+    private PasswordPolicy() {
+    }
+
+    public static boolean isValid(String password) {
+        if (password == null || password.length() < MIN_LENGTH) {
+            return false;
+        }
+        boolean digit = false;
+        boolean letter = false;
+        boolean special = false;
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                letter = true;
+            } else if (SPECIAL_CHARACTERS.indexOf(c) >= 0) {
+                special = true;
+            }
+            if (digit && letter && special) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.student.util;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 基于 JDK 自带 PBKDF2WithHmacSHA256 的密码哈希
+ *
+ * 存储格式：pbkdf2$迭代次数$盐(Base64)$哈希(Base64)。迭代次数即计算成本，记录在密文中，
+ * 因此调高成本后旧密文仍可校验，并可通过 {@link #needsRehash(String)} 识别出来逐步升级。
+ */
+public class Pbkdf2PasswordHasher implements PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2$";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final int iterations;
+
+    public Pbkdf2PasswordHasher(int iterations) {
+        if (iterations < 1) {
+            throw new IllegalArgumentException("迭代次数必须大于0");
+        }
+        this.iterations = iterations;
+    }
+
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public String hash(String rawPassword) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        byte[] hash = derive(rawPassword, salt, iterations, HASH_BITS);
+        Base64.Encoder encoder = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + "$" + encoder.encodeToString(salt) + "$" + encoder.encodeToString(hash);
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword) {
+        String[] parts = split(encodedPassword);
+        if (parts == null) {
+            return false;
+        }
+        try {
+            int storedIterations = Integer.parseInt(parts[1]);
+            byte[] salt = Base64.getDecoder().decode(parts[2]);
+            byte[] expected = Base64.getDecoder().decode(parts[3]);
+            byte[] actual = derive(rawPassword, salt, storedIterations, expected.length * 8);
+            // 常量时间比较，避免通过响应时间推测哈希内容
+            return MessageDigest.isEqual(expected, actual);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean supports(String encodedPassword) {
+        return split(encodedPassword) != null;
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        String[] parts = split(encodedPassword);
+        if (parts == null) {
+            return true;
+        }
+        try {
+            return Integer.parseInt(parts[1]) < iterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    private static String[] split(String encodedPassword) {
+        if (encodedPassword == null || !encodedPassword.startsWith(PREFIX)) {
+            return null;
+        }
+        String[] parts = encodedPassword.split("\\$");
+        return parts.length == 4 ? parts : null;
+    }
+
+    private static byte[] derive(String rawPassword, byte[] salt, int iterations, int bits) {
+        PBEKeySpec spec = new PBEKeySpec(rawPassword.toCharArray(), salt, iterations, bits);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("无法计算密码哈希", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
@@ -0,0 +1,89 @@
+-- 初始表结构，与实体映射一致（prod profile 下 Hibernate 以 validate 模式校验）
+
+CREATE TABLE major (
+    id           BIGINT       NOT NULL AUTO_INCREMENT,
+    major_code   VARCHAR(20)  NOT NULL,
+    major_name   VARCHAR(100) NOT NULL,
+    description  TEXT,
+    created_time DATETIME(6)  NOT NULL,
+    updated_time DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_major_code UNIQUE (major_code)
+);
+
+CREATE TABLE student (
+    id              BIGINT      NOT NULL AUTO_INCREMENT,
+    student_id      VARCHAR(20) NOT NULL,
+    name            VARCHAR(50) NOT NULL,
+    age             INT         NOT NULL,
+    phone           VARCHAR(20) NOT NULL,
+    enrollment_date DATE        NOT NULL,
+    sequence_number INT         NOT NULL,
+    major_id        BIGINT      NOT NULL,
+    created_time    DATETIME(6) NOT NULL,
+    updated_time    DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_student_student_id UNIQUE (student_id),
+    CONSTRAINT uk_student_phone UNIQUE (phone),
+    CONSTRAINT fk_student_major FOREIGN KEY (major_id) REFERENCES major (id)
+);
+
+-- 按专业、入学日期筛选学生，同时作为 fk_student_major 的索引
+CREATE INDEX idx_student_major_enrollment ON student (major_id, enrollment_date);
+
+CREATE TABLE account (
+    id           BIGINT                     NOT NULL AUTO_INCREMENT,
+    username     VARCHAR(50)                NOT NULL,
+    password     VARCHAR(255)               NOT NULL,
+    role         ENUM ('STUDENT', 'ADMIN')  NOT NULL,
+    first_login  BIT                        NOT NULL,
+    student_id   BIGINT,
+    created_time DATETIME(6)                NOT NULL,
+    updated_time DATETIME(6)                NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_account_username UNIQUE (username),
+    CONSTRAINT uk_account_student UNIQUE (student_id),
+    CONSTRAINT fk_account_student FOREIGN KEY (student_id) REFERENCES student (id)
+);
+
+CREATE TABLE course (
+    id             BIGINT        NOT NULL AUTO_INCREMENT,
+    course_code    VARCHAR(20)   NOT NULL,
+    course_name    VARCHAR(100)  NOT NULL,
+    description    TEXT,
+    credits        DECIMAL(3, 1) NOT NULL,
+    capacity       INT,
+    selected_count INT           NOT NULL DEFAULT 0,
+    created_time   DATETIME(6)   NOT NULL,
+    updated_time   DATETIME(6)   NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_course_code UNIQUE (course_code)
+);
+
+-- 主键由 student_course_seq 按 50 一段分配，不使用自增
+CREATE TABLE student_course (
+    id            BIGINT      NOT NULL,
+    student_id    BIGINT      NOT NULL,
+    course_id     BIGINT      NOT NULL,
+    selected_time DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_student_course UNIQUE (student_id, course_id),
+    CONSTRAINT fk_sc_student FOREIGN KEY (student_id) REFERENCES student (id),
+    CONSTRAINT fk_sc_course FOREIGN KEY (course_id) REFERENCES course (id)
+);
+
+-- 按课程查询选课名单，(course_id, student_id) 覆盖索引，同时作为 fk_sc_course 的索引
+CREATE INDEX idx_sc_course_student ON student_course (course_id, student_id);
+
+-- MySQL 没有序列，Hibernate 用单行表模拟 student_course_seq
+CREATE TABLE student_course_seq (
+    next_val BIGINT
+);
+INSERT INTO student_course_seq (next_val) VALUES (1);
+
+CREATE TABLE student_id_counter (
+    major_id        BIGINT NOT NULL,
+    enrollment_year INT    NOT NULL,
+    next_value      INT    NOT NULL,
+    PRIMARY KEY (major_id, enrollment_year)
+);
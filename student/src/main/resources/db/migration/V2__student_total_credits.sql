@@ -0,0 +1,8 @@
+-- 学生已选课程总学分，由应用随选课、退课增量维护，这里按现有选课记录回填
+ALTER TABLE student ADD COLUMN total_credits DECIMAL(5, 1) NOT NULL DEFAULT 0;
+
+UPDATE student s
+SET total_credits = (SELECT COALESCE(SUM(c.credits), 0)
+                     FROM student_course sc
+                              JOIN course c ON c.id = sc.course_id
+                     WHERE sc.student_id = s.id);
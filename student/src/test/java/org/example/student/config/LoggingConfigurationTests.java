@@ -0,0 +1,50 @@
+package org.example.student.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.spi.FilterReply;
+import ch.qos.logback.core.status.Status;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * INFO 及以下级别经异步队列写出，WARN/ERROR 绕过队列同步写出，队列满时也不会丢失
+ */
+@SpringBootTest
+class LoggingConfigurationTests {
+
+    @Test
+    void warningsBypassTheAsyncQueue() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Logger root = context.getLogger(Logger.ROOT_LOGGER_NAME);
+        Appender<?> async = root.getAppender("ASYNC_CONSOLE");
+        Appender<?> warn = root.getAppender("CONSOLE_WARN");
+
+        for (Level level : new Level[]{Level.DEBUG, Level.INFO}) {
+            assertEquals(FilterReply.NEUTRAL, decide(async, event(root, level)));
+            assertEquals(FilterReply.DENY, decide(warn, event(root, level)));
+        }
+        for (Level level : new Level[]{Level.WARN, Level.ERROR}) {
+            assertEquals(FilterReply.DENY, decide(async, event(root, level)));
+            assertEquals(FilterReply.NEUTRAL, decide(warn, event(root, level)));
+        }
+        assertTrue(context.getStatusManager().getCopyOfStatusList().stream()
+                .noneMatch(status -> status.getLevel() == Status.ERROR));
+    }
+
+    private static LoggingEvent event(Logger logger, Level level) {
+        return new LoggingEvent(Logger.class.getName(), logger, level, "日志", null, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static FilterReply decide(Appender<?> appender, LoggingEvent event) {
+        return ((Appender<LoggingEvent>) appender).getFilterChainDecision(event);
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.student.controller;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.student.support.TestData;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 5 万账户下的 /account/list：每页固定 2 条语句（列表 + 总数），响应不含密码，体积与总账户数无关
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AccountListingTests {
+
+    private static final int STUDENT_ACCOUNTS = 49_990;
+    private static final int ADMIN_ACCOUNTS = 10;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeAll
+    void seed() {
+        Long majorId = testData.major("AL");
+        testData.students(majorId, STUDENT_ACCOUNTS);
+        testData.accounts(majorId, "pbkdf2$secret-hash");
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO account (username, password, role, first_login, created_time, updated_time) " +
+                "SELECT 'ALADMIN' || LPAD(X, 2, '0'), 'pbkdf2$secret-hash', 'ADMIN', FALSE, ?, ? FROM SYSTEM_RANGE(1, ?)",
+                now, now, ADMIN_ACCOUNTS);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        testData.cleanUp("AL");
+    }
+
+    @Test
+    void pageUsesTwoStatementsAndOmitsPasswords() throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        MockHttpServletResponse response = mockMvc.perform(get("/account/list").param("role", "STUDENT").param("username", "AL"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", String.valueOf(STUDENT_ACCOUNTS)))
+                .andExpect(jsonPath("$.data", hasSize(50)))
+                .andExpect(jsonPath("$.data[0].username").value("AL1"))
+                .andExpect(jsonPath("$.data[0].student.studentId").value("AL1"))
+                .andExpect(jsonPath("$.data[0].student.majorName").value("AL"))
+                .andReturn().getResponse();
+
+        assertEquals(2, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        String body = response.getContentAsString(StandardCharsets.UTF_8);
+        assertFalse(body.contains("password") || body.contains("secret-hash"), body);
+        int bytes = response.getContentAsByteArray().length;
+        assertTrue(bytes < 16 * 1024, "payload bytes: " + bytes);
+    }
+
+    @Test
+    void filtersByRoleAndPrefixAndSorts() throws Exception {
+        mockMvc.perform(get("/account/list")
+                        .param("role", "ADMIN").param("username", "ALADMIN").param("sort", "username,desc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", String.valueOf(ADMIN_ACCOUNTS)))
+                .andExpect(jsonPath("$.data[0].username").value("ALADMIN10"))
+                .andExpect(jsonPath("$.data[0].student").isEmpty());
+
+        // 前缀中的通配符按普通字符匹配
+        mockMvc.perform(get("/account/list").param("username", "AL_"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "0"));
+
+        mockMvc.perform(get("/account/list").param("sort", "password"))
+                .andExpect(status().isBadRequest());
+    }
+}
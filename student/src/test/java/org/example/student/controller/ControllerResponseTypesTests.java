@@ -0,0 +1,107 @@
+package org.example.student.controller;
+
+import jakarta.persistence.Entity;
+import org.example.student.entity.Major;
+import org.example.student.util.Result;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.ClassUtils;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 架构约束：控制器的返回类型（包括 DTO 的字段，逐层展开）中不能出现 JPA 实体，
+ * 否则 Jackson 会沿懒加载关联加载整张关联表
+ */
+class ControllerResponseTypesTests {
+
+    private static final String BASE_PACKAGE = "org.example.student";
+
+    @Test
+    void controllersNeverReturnEntities() throws Exception {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false);
+        scanner.addIncludeFilter(new AnnotationTypeFilter(RestController.class));
+        Set<BeanDefinition> controllers = scanner.findCandidateComponents(BASE_PACKAGE);
+        assertTrue(controllers.size() > 0);
+
+        List<String> violations = new ArrayList<>();
+        for (BeanDefinition definition : controllers) {
+            Class<?> controller = ClassUtils.forName(definition.getBeanClassName(), getClass().getClassLoader());
+            for (Method method : controller.getDeclaredMethods()) {
+                if (!AnnotatedElementUtils.hasAnnotation(method, RequestMapping.class)) {
+                    continue;
+                }
+                for (Class<?> entity : entityTypesIn(method.getGenericReturnType())) {
+                    violations.add(controller.getSimpleName() + "." + method.getName() + " -> " + entity.getSimpleName());
+                }
+            }
+        }
+        assertEquals(List.of(), violations);
+    }
+
+    @Test
+    void detectsEntitiesNestedInGenerics() throws Exception {
+        Type type = ControllerResponseTypesTests.class.getDeclaredMethod("leakingEndpoint").getGenericReturnType();
+        assertEquals(Set.of(Major.class), entityTypesIn(type));
+    }
+
+    @SuppressWarnings("unused")
+    private ResponseEntity<Result<List<Major>>> leakingEndpoint() {
+        return null;
+    }
+
+    private static Set<Class<?>> entityTypesIn(Type type) {
+        Set<Class<?>> entities = new HashSet<>();
+        collect(type, entities, new HashSet<>());
+        return entities;
+    }
+
+    private static void collect(Type type, Set<Class<?>> entities, Set<Class<?>> visited) {
+        if (type instanceof ParameterizedType parameterized) {
+            collect(parameterized.getRawType(), entities, visited);
+            for (Type argument : parameterized.getActualTypeArguments()) {
+                collect(argument, entities, visited);
+            }
+        } else if (type instanceof WildcardType wildcard) {
+            for (Type bound : wildcard.getUpperBounds()) {
+                collect(bound, entities, visited);
+            }
+        } else if (type instanceof GenericArrayType array) {
+            collect(array.getGenericComponentType(), entities, visited);
+        } else if (type instanceof Class<?> clazz) {
+            if (clazz.isArray()) {
+                collect(clazz.getComponentType(), entities, visited);
+            } else if (clazz.isAnnotationPresent(Entity.class)) {
+                entities.add(clazz);
+            } else if (clazz.getName().startsWith(BASE_PACKAGE) && visited.add(clazz)) {
+                // 项目内的 DTO：继续检查会被序列化的字段
+                for (Class<?> current = clazz; current != null && current != Object.class; current = current.getSuperclass()) {
+                    for (Field field : current.getDeclaredFields()) {
+                        if (!Modifier.isStatic(field.getModifiers()) && !Modifier.isTransient(field.getModifiers())) {
+                            collect(field.getGenericType(), entities, visited);
+                        }
+                    }
+                }
+            }
+        }
+    }
+}
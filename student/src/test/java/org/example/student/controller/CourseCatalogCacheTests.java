@@ -0,0 +1,77 @@
+package org.example.student.controller;
+
+import org.example.student.entity.Course;
+import org.example.student.service.CourseService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class CourseCatalogCacheTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE 'CC-%'");
+    }
+
+    @Test
+    void conditionalGetSkipsPayloadUntilCatalogChanges() throws Exception {
+        Course course = courseService.saveCourse(Course.builder()
+                .courseCode("CC-1").courseName("缓存课程").credits(new BigDecimal("2.0")).build());
+
+        String etag = mockMvc.perform(get("/course/list"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        long hits = (Long) courseService.getCatalogStatistics().get("hits");
+
+        mockMvc.perform(get("/course/list").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        assertEquals(hits + 1, courseService.getCatalogStatistics().get("hits"));
+        // 弱 ETag 和逗号分隔的多个 ETag 同样匹配
+        for (String ifNoneMatch : List.of("W/" + etag, "\"other\", " + etag)) {
+            mockMvc.perform(get("/course/list").header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string(HttpHeaders.ETAG, etag))
+                    .andExpect(content().string(""));
+        }
+        mockMvc.perform(get("/course/list").header(HttpHeaders.IF_NONE_MATCH, "\"other\""))
+                .andExpect(status().isOk());
+
+        long evictions = (Long) courseService.getCatalogStatistics().get("evictions");
+        course.setCourseName("缓存课程（更新）");
+        courseService.saveCourse(course);
+        assertEquals(evictions + 1, courseService.getCatalogStatistics().get("evictions"));
+
+        String newEtag = mockMvc.perform(get("/course/list").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("缓存课程（更新）")))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, newEtag);
+    }
+}
@@ -0,0 +1,118 @@
+package org.example.student.controller;
+
+import org.example.student.entity.Course;
+import org.example.student.service.CourseEventService;
+import org.example.student.service.CourseService;
+import org.example.student.service.StudentCourseService;
+import org.example.student.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * /course/events：提交后的选课、退课按课程合并推送，回滚的选课不推送，课程修改推送 catalog 事件
+ * （合并窗口设为很长，由测试手动触发推送）
+ */
+@SpringBootTest(properties = "enrollment.events.coalesce-ms=3600000")
+@AutoConfigureMockMvc
+class CourseEventsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseEventService courseEventService;
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private TestData testData;
+
+    private List<Long> studentIds;
+    private List<Long> courseIds;
+
+    @BeforeEach
+    void seed() {
+        studentIds = testData.students(testData.major("EV"), 2);
+        // 第二门课程容量为 1
+        courseIds = List.of(testData.course("EV-C1", 2.0, null), testData.course("EV-C2", 2.0, 1));
+        // 丢弃其他测试留下的待推送变化
+        courseEventService.flush();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("EV");
+    }
+
+    @Test
+    void committedChangesAreCoalescedPerCourse() throws Exception {
+        MvcResult subscription = mockMvc.perform(get("/course/events"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse response = subscription.getResponse();
+        awaitCount(response, "event:ready", 1);
+        assertTrue(response.getContentAsString().startsWith("event:ready"), response.getContentAsString());
+
+        Long first = courseIds.get(0);
+        Long limited = courseIds.get(1);
+        studentCourseService.selectCourse(studentIds.get(0), first);
+        studentCourseService.selectCourse(studentIds.get(1), first);
+        studentCourseService.dropCourse(studentIds.get(1), first);
+        studentCourseService.selectCourse(studentIds.get(0), limited);
+        // 名额已满而回滚的选课不产生推送
+        assertThrows(IllegalStateException.class, () -> studentCourseService.selectCourse(studentIds.get(1), limited));
+        courseEventService.flush();
+
+        String stream = awaitCount(response, "event:seats", 1);
+        assertEquals(1, count(stream, "event:seats"), stream);
+        assertTrue(stream.contains("{\"courseId\":" + first + ",\"capacity\":null,\"selectedCount\":1"), stream);
+        assertTrue(stream.contains("{\"courseId\":" + limited + ",\"capacity\":1,\"selectedCount\":1,\"remaining\":0}"), stream);
+
+        Course course = courseService.getCourseById(first).orElseThrow();
+        course.setCourseName("推送课程（更新）");
+        courseService.saveCourse(course);
+        courseEventService.flush();
+        awaitCount(response, "event:catalog", 1);
+        // 课程修改可能改变容量，同时推送该课程的名额
+        assertEquals(2, count(awaitCount(response, "event:seats", 2), "event:seats"));
+    }
+
+    // 事件由发送线程异步写出，等待响应中出现指定数量的事件
+    private static String awaitCount(MockHttpServletResponse response, String token, int expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 5000;
+        String stream = response.getContentAsString();
+        while (count(stream, token) < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            stream = response.getContentAsString();
+        }
+        assertEquals(expected, count(stream, token), stream);
+        return stream;
+    }
+
+    private static int count(String text, String token) {
+        int count = 0;
+        for (int i = text.indexOf(token); i >= 0; i = text.indexOf(token, i + token.length())) {
+            count++;
+        }
+        return count;
+    }
+}
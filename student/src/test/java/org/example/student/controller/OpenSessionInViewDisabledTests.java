@@ -0,0 +1,120 @@
+package org.example.student.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.example.student.service.PasswordService;
+import org.example.student.service.SqlStatisticsService;
+import org.example.student.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 关闭 open-session-in-view 后，返回关联数据的接口由服务层预先取齐关联，不会在视图渲染时懒加载失败；
+ * 每请求的连接占用时长计入 /actuator/sql 和 Prometheus
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"password.hash.iterations=1000", "management.server.port=0"})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class OpenSessionInViewDisabledTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private SqlStatisticsService sqlStatisticsService;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    private Long studentId;
+    private Long courseId;
+    private Long accountId;
+
+    @BeforeEach
+    void seed() {
+        Long majorId = testData.major("OV");
+        studentId = testData.students(majorId, 1).get(0);
+        testData.accounts(majorId, passwordService.encode("Abc12345!"));
+        accountId = jdbcTemplate.queryForObject("SELECT id FROM account WHERE username = 'OV1'", Long.class);
+        courseId = testData.course("OV-C1", 2.0, null);
+        testData.enroll(List.of(studentId), List.of(courseId));
+        sqlStatisticsService.reset();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("OV");
+    }
+
+    @Test
+    void associationsAreLoadedByServices() throws Exception {
+        mockMvc.perform(get("/student-course/selected/" + studentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].student.major.majorName").value("OV"))
+                .andExpect(jsonPath("$.data[0].course.courseCode").value("OV-C1"));
+        mockMvc.perform(get("/enrollment/student/" + studentId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].student.major.majorName").value("OV"));
+        mockMvc.perform(get("/enrollment/course/" + courseId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].student.studentId").value("OV1"));
+        mockMvc.perform(get("/account/" + accountId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.student.major.majorName").value("OV"))
+                .andExpect(jsonPath("$.data.password").doesNotExist());
+        mockMvc.perform(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"OV1\",\"password\":\"Abc12345!\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.user.student.id").value(studentId))
+                .andExpect(jsonPath("$.data.user.student.majorName").value("OV"));
+    }
+
+    @Test
+    void connectionHoldTimeIsRecordedPerRequest() throws Exception {
+        mockMvc.perform(get("/student-course/selected/" + studentId)).andExpect(status().isOk());
+
+        String sql = restTemplate.getForObject(management("/actuator/sql"), String.class);
+        String route = "$.endpoints[?(@.endpoint == 'GET /student-course/selected/{studentId}')]";
+        assertFalse(JsonPath.<List<Object>>read(sql, route + ".maxConnectionHoldMillisPerRequest").isEmpty());
+        assertEquals(List.of(1), JsonPath.read(sql, route + ".requests"));
+        assertThat(restTemplate.getForObject(management("/actuator/prometheus"), String.class), containsString(
+                "sql_connection_hold_seconds_count{application=\"student\",method=\"GET\",uri=\"/student-course/selected/{studentId}\"}"));
+    }
+
+    private String management(String path) {
+        return "http://127.0.0.1:" + managementPort + path;
+    }
+}
@@ -0,0 +1,68 @@
+package org.example.student.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prometheus 抓取端点（管理端口）包含按路由和状态码的耗时直方图、业务计数器和连接池指标；
+ * 对外的应用端口上没有 metrics 和 prometheus 端点
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class PrometheusMetricsTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Test
+    void scrapeExposesRouteLatencyBusinessCountersAndPoolGauges() throws Exception {
+        mockMvc.perform(get("/course/list")).andExpect(status().isOk());
+        mockMvc.perform(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"nobody\",\"password\":\"x\"}"))
+                .andExpect(status().isBadRequest());
+
+        String scrape = restTemplate.getForObject("http://127.0.0.1:" + managementPort + "/actuator/prometheus", String.class);
+        assertThat(scrape, allOf(
+                containsString("http_server_requests_seconds_bucket{application=\"student\""),
+                containsString("status=\"200\",uri=\"/course/list\",le="),
+                containsString("auth_logins_total{application=\"student\",reason=\"user_not_found\",result=\"failure\"}"),
+                containsString("course_catalog_cache_requests_total"),
+                containsString("password_hash_queued"),
+                containsString("hikaricp_connections_active")));
+    }
+
+    @Test
+    void metricsAreNotServedOnApplicationPort() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/metrics")).andExpect(status().isNotFound());
+        mockMvc.perform(get("/actuator/metrics/http.server.requests")).andExpect(status().isNotFound());
+
+        ResponseEntity<String> metrics = restTemplate.getForEntity(
+                "http://127.0.0.1:" + managementPort + "/actuator/metrics/http.server.requests", String.class);
+        assertEquals(HttpStatus.OK, metrics.getStatusCode());
+    }
+}
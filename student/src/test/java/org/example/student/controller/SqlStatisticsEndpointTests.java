@@ -0,0 +1,108 @@
+package org.example.student.controller;
+
+import com.jayway.jsonpath.JsonPath;
+import org.example.student.service.SqlStatisticsService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL 统计：按路由模板汇总每请求语句数，识别同一请求内重复执行的语句，并通过管理端口上的 /actuator/sql 暴露；
+ * 应用端口上既不能查看也不能清零
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"sql.instrumentation.n-plus-one-threshold=5", "management.server.port=0"})
+@AutoConfigureMockMvc
+class SqlStatisticsEndpointTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @LocalManagementPort
+    private int managementPort;
+
+    @Autowired
+    private SqlStatisticsService sqlStatisticsService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void reset() {
+        sqlStatisticsService.reset();
+    }
+
+    @Test
+    void requestsAreGroupedByRoutePattern() throws Exception {
+        mockMvc.perform(get("/student-course/selected/1")).andExpect(status().isOk());
+        mockMvc.perform(get("/student-course/selected/2")).andExpect(status().isOk());
+
+        ResponseEntity<String> response = restTemplate.getForEntity(management("/actuator/sql"), String.class);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        List<Integer> requests = JsonPath.read(response.getBody(),
+                "$.endpoints[?(@.endpoint == 'GET /student-course/selected/{studentId}')].requests");
+        assertEquals(List.of(2), requests);
+        assertTrue(JsonPath.<Object>read(response.getBody(), "$.totals.statements") instanceof Number);
+    }
+
+    @Test
+    void endpointIsNotServedOnApplicationPort() throws Exception {
+        mockMvc.perform(get("/student-course/selected/1")).andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/sql")).andExpect(status().isNotFound());
+        mockMvc.perform(delete("/actuator/sql")).andExpect(status().is4xxClientError());
+        assertFalse(((List<?>) sqlStatisticsService.snapshot().get("endpoints")).isEmpty());
+
+        restTemplate.delete(management("/actuator/sql"));
+        assertTrue(((List<?>) sqlStatisticsService.snapshot().get("endpoints")).isEmpty());
+    }
+
+    private String management(String path) {
+        return "http://127.0.0.1:" + managementPort + path;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void repeatedStatementsInOneRequestAreFlaggedAsNPlusOne() {
+        String sql = "SELECT id FROM major WHERE id = ?";
+        sqlStatisticsService.beginRequest("GET /test");
+        for (long id = 1; id <= 6; id++) {
+            jdbcTemplate.queryForList(sql, Long.class, id);
+        }
+        jdbcTemplate.queryForList("SELECT X FROM SYSTEM_RANGE(1, 3)", Long.class);
+        sqlStatisticsService.endRequest("GET", "/test");
+
+        Map<String, Object> snapshot = sqlStatisticsService.snapshot();
+        List<Map<String, Object>> suspects = (List<Map<String, Object>>) snapshot.get("nPlusOneSuspects");
+        assertEquals(1, suspects.size());
+        assertEquals(sql, suspects.get(0).get("sql"));
+        assertEquals(6L, suspects.get(0).get("maxExecutionsPerRequest"));
+
+        List<Map<String, Object>> statements = (List<Map<String, Object>>) snapshot.get("topStatementsByTime");
+        assertTrue(statements.stream().anyMatch(s -> "SELECT X FROM SYSTEM_RANGE(1, 3)".equals(s.get("sql"))
+                && Long.valueOf(3).equals(s.get("rows"))));
+        List<Map<String, Object>> endpoints = (List<Map<String, Object>>) snapshot.get("endpoints");
+        assertEquals(7L, endpoints.get(0).get("maxStatementsPerRequest"));
+    }
+}
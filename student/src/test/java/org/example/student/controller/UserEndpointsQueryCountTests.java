@@ -0,0 +1,138 @@
+package org.example.student.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.student.entity.Account;
+import org.example.student.service.PasswordService;
+import org.example.student.support.TestData;
+import org.example.student.util.JwtUtil;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * /user/major/list 和 /user/info 只执行一条语句，与专业下的学生数、选课数无关，响应中不含密码和关联集合
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class UserEndpointsQueryCountTests {
+
+    private static final int STUDENTS = 30;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seed() {
+        Long majorId = testData.major("UE");
+        List<Long> studentIds = testData.students(majorId, STUDENTS);
+        testData.accounts(majorId, "pbkdf2$secret-hash");
+        testData.enroll(studentIds, List.of(testData.course("UE-C1", 2.0, null)));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("UE");
+    }
+
+    @Test
+    void majorListIsOneStatement() throws Exception {
+        Statistics statistics = statistics();
+        String body = mockMvc.perform(get("/user/major/list"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertFalse(body.contains("students") || body.contains("UE1"), body);
+    }
+
+    @Test
+    void userInfoIsOneStatementWithoutPassword() throws Exception {
+        String token = JwtUtil.generateToken(Account.builder().username("UE1").role(Account.Role.STUDENT).build());
+        Statistics statistics = statistics();
+        String body = mockMvc.perform(get("/user/info").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.username").value("UE1"))
+                .andExpect(jsonPath("$.data.student.studentId").value("UE1"))
+                .andExpect(jsonPath("$.data.student.majorName").value("UE"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertFalse(body.contains("password") || body.contains("secret-hash") || body.contains("selections"), body);
+    }
+
+    @Test
+    void loginAndUserInfoReturnTheSameUserShape() throws Exception {
+        jdbcTemplate.update("UPDATE account SET password = ? WHERE username = 'UE2'", passwordService.encode("Abc12345!"));
+        String login = mockMvc.perform(post("/user/login").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"username\":\"UE2\",\"password\":\"Abc12345!\"}"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String token = JwtUtil.generateToken(Account.builder().username("UE2").role(Account.Role.STUDENT).build());
+        String info = mockMvc.perform(get("/user/info").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        // 前端 store 中的 user 无论由哪个接口填充，字段都相同
+        JsonNode loginUser = objectMapper.readTree(login).path("data").path("user");
+        JsonNode infoUser = objectMapper.readTree(info).path("data");
+        assertEquals(fieldNames(infoUser, ""), fieldNames(loginUser, ""));
+        assertTrue(fieldNames(loginUser, "").contains("student.majorName"));
+        assertEquals(infoUser.path("student").path("id"), loginUser.path("student").path("id"));
+    }
+
+    private static Set<String> fieldNames(JsonNode node, String prefix) {
+        Set<String> names = new TreeSet<>();
+        node.fields().forEachRemaining(field -> {
+            names.add(prefix + field.getKey());
+            if (field.getValue().isObject()) {
+                names.addAll(fieldNames(field.getValue(), prefix + field.getKey() + "."));
+            }
+        });
+        return names;
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
@@ -0,0 +1,104 @@
+package org.example.student.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.student.dto.StudentCourseDTO;
+import org.example.student.service.StudentCourseService;
+import org.example.student.support.TestData;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 选课名单查询的集成基准：表规模扩大后，同一门课程的名单查询语句数与耗时应保持平稳
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CourseRosterQueryTests {
+
+    private static final int STUDENTS = 500;
+    private static final int COURSES = 40;
+    private static final int PAGE_SIZE = 200;
+    private static final int ROUNDS = 15;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private final List<Long> studentIds = new ArrayList<>();
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Long majorId = testData.major("RB");
+        studentIds.addAll(testData.students(majorId, STUDENTS));
+        for (int i = 1; i <= COURSES; i++) {
+            courseIds.add(testData.course("RB-C" + i, 2.0, null));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("RB");
+    }
+
+    @Test
+    void rosterQueryStaysFlatAsEnrollmentTableGrows() {
+        Long rosterCourse = courseIds.get(0);
+
+        // 小表：每名学生选 2 门课
+        enrollEveryStudentIn(courseIds.subList(0, 2));
+        long smallStatements = countStatements(rosterCourse);
+        long smallNanos = medianRosterNanos(rosterCourse);
+
+        // 大表：每名学生选满全部课程，表规模扩大 20 倍，但目标课程名单大小不变
+        enrollEveryStudentIn(courseIds.subList(2, COURSES));
+        long largeStatements = countStatements(rosterCourse);
+        long largeNanos = medianRosterNanos(rosterCourse);
+
+        assertEquals(smallStatements, largeStatements, "名单查询语句数不应随表规模增长");
+        assertTrue(largeStatements <= 2, "名单查询应为一条分页查询加一条计数查询，实际: " + largeStatements);
+        assertTrue(largeNanos < smallNanos * 10 + 50_000_000L,
+                "名单查询耗时随表规模明显增长: " + smallNanos / 1000 + "us -> " + largeNanos / 1000 + "us");
+    }
+
+    private void enrollEveryStudentIn(List<Long> courses) {
+        testData.enroll(studentIds, courses);
+    }
+
+    private long countStatements(Long courseId) {
+        statistics.clear();
+        Page<StudentCourseDTO> page = studentCourseService.getEnrollmentsByCourseId(courseId, 0, PAGE_SIZE);
+        assertEquals(STUDENTS, page.getTotalElements());
+        assertEquals(PAGE_SIZE, page.getNumberOfElements());
+        return statistics.getPrepareStatementCount();
+    }
+
+    private long medianRosterNanos(Long courseId) {
+        long[] samples = new long[ROUNDS];
+        for (int i = 0; i < ROUNDS; i++) {
+            long start = System.nanoTime();
+            studentCourseService.getEnrollmentsByCourseId(courseId, i % 3, PAGE_SIZE);
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[ROUNDS / 2];
+    }
+}
@@ -0,0 +1,92 @@
+package org.example.student.repository;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.student.dto.StudentCourseDTO;
+import org.example.student.service.StudentCourseService;
+import org.example.student.support.TestData;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 选课列表映射为 StudentCourseDTO 时的 SQL 语句数上限，防止懒加载引起的 N+1 回归
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EnrollmentListingQueryCountTests {
+
+    private static final int STUDENTS = 30;
+    private static final int COURSES = 5;
+
+    @Autowired
+    private StudentCourseRepository studentCourseRepository;
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long firstStudentId;
+    private Long firstCourseId;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Long majorId = testData.major("QC");
+        List<Long> studentIds = testData.students(majorId, STUDENTS);
+        testData.accounts(majorId, "x");
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 1; i <= COURSES; i++) {
+            courseIds.add(testData.course("QC-C" + i, 2.0, null));
+        }
+        testData.enroll(studentIds, courseIds);
+        firstStudentId = studentIds.get(0);
+        firstCourseId = courseIds.get(0);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("QC");
+    }
+
+    @Test
+    void listingByStudentUsesSingleQuery() {
+        assertStatementsAtMost(1, COURSES, () -> studentCourseService.getCoursesByStudentId(firstStudentId));
+    }
+
+    @Test
+    void listingAllUsesSingleQuery() {
+        assertStatementsAtMost(1, STUDENTS * COURSES,
+                () -> studentCourseRepository.findAll().stream().map(StudentCourseDTO::new).toList());
+    }
+
+    @Test
+    void listingByCourseUsesPageAndCountQueries() {
+        assertStatementsAtMost(2, STUDENTS,
+                () -> studentCourseService.getEnrollmentsByCourseId(firstCourseId, 0, 100).getContent());
+    }
+
+    private void assertStatementsAtMost(long maxStatements, int expectedRows, Supplier<List<StudentCourseDTO>> listing) {
+        statistics.clear();
+        List<StudentCourseDTO> dtos = listing.get();
+        long statements = statistics.getPrepareStatementCount();
+        assertEquals(expectedRows, dtos.size());
+        assertTrue(dtos.stream().allMatch(dto -> dto.getStudent().getMajor() != null && dto.getCourse() != null));
+        assertTrue(statements <= maxStatements, "选课列表 SQL 语句数超出上限: " + statements + " > " + maxStatements);
+    }
+}
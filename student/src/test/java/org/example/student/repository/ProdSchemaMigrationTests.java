@@ -0,0 +1,158 @@
+package org.example.student.repository;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.example.student.dto.EnrollmentItemResult;
+import org.example.student.dto.StudentRegisterRequest;
+import org.example.student.dto.StudentRegisterResponse;
+import org.example.student.service.StudentCourseService;
+import org.example.student.service.StudentService;
+import org.example.student.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.example.student.StudentApplication;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * prod profile：表结构由 Flyway 脚本创建，Hibernate 以 validate 模式通过校验，业务读写在 MySQL 方言下可用。
+ * 用 H2 的 MySQL 兼容模式代替真实 MySQL，连接池等其余配置与生产一致。
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:student_prod;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driverClassName=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "password.hash.iterations=1000"
+})
+@ActiveProfiles("prod")
+class ProdSchemaMigrationTests {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("PD");
+    }
+
+    @Test
+    void migrationsAreAppliedInsteadOfHibernateDdl() {
+        List<String> versions = jdbcTemplate.queryForList(
+                "SELECT \"version\" FROM \"flyway_schema_history\" WHERE \"success\" = TRUE ORDER BY \"installed_rank\"",
+                String.class);
+        assertTrue(versions.contains("1"), "已执行的迁移版本: " + versions);
+    }
+
+    @Test
+    void queryIndexesExist() throws Exception {
+        Map<String, List<String>> studentIndexes = indexColumns("student");
+        assertEquals(List.of("major_id", "enrollment_date"), studentIndexes.get("idx_student_major_enrollment"));
+
+        Map<String, List<String>> selectionIndexes = indexColumns("student_course");
+        assertEquals("course_id", selectionIndexes.get("idx_sc_course_student").get(0));
+    }
+
+    @Test
+    void connectionPoolUsesProductionSettings() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        assertEquals(20, hikari.getMaximumPoolSize());
+        assertEquals(3000, hikari.getConnectionTimeout());
+    }
+
+    @Test
+    void registerAndSelectCoursesOnMigratedSchema() throws Exception {
+        Long majorId = testData.major("PD");
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            courseIds.add(testData.course("PD-C" + i, 2.5, 10));
+        }
+
+        StudentRegisterRequest request = new StudentRegisterRequest();
+        request.setName("生产学生");
+        request.setAge(19);
+        request.setPhone("13700000001");
+        request.setEnrollmentDate(LocalDate.of(2025, 9, 1));
+        request.setMajorId(majorId);
+        StudentRegisterResponse response = studentService.registerStudent(request);
+        assertEquals("PD2025001", response.getStudentId());
+        Long studentId = jdbcTemplate.queryForObject("SELECT id FROM student WHERE student_id = ?", Long.class,
+                response.getStudentId());
+
+        // 选课主键来自 student_course_seq 模拟序列表
+        List<EnrollmentItemResult> results = studentCourseService.selectCourses(studentId, courseIds);
+        assertTrue(results.stream().allMatch(EnrollmentItemResult::isSuccess), results.toString());
+        assertEquals(3, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_course WHERE student_id = ?",
+                Integer.class, studentId));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT selected_count FROM course WHERE id = ?",
+                Integer.class, courseIds.get(0)));
+        assertEquals(7.5, studentCourseService.getTotalCreditsByStudentId(studentId).doubleValue());
+    }
+
+    @Test
+    void nonEmptySchemaWithoutHistoryIsRejected() throws Exception {
+        // 模拟旧版 ddl-auto=update 建出的库：已有业务表，没有 Flyway 历史表
+        String url = "jdbc:h2:mem:student_legacy;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            connection.createStatement().execute("CREATE TABLE major (id BIGINT PRIMARY KEY, major_code VARCHAR(20))");
+        }
+
+        SpringApplicationBuilder legacy = new SpringApplicationBuilder(StudentApplication.class)
+                .profiles("prod")
+                .web(WebApplicationType.NONE);
+        Exception failure = assertThrows(Exception.class, () -> legacy.run("--spring.datasource.url=" + url,
+                "--spring.datasource.driverClassName=org.h2.Driver", "--spring.datasource.username=sa",
+                "--spring.datasource.password=").close());
+        Throwable cause = NestedExceptionUtils.getMostSpecificCause(failure);
+        assertTrue(cause instanceof FlywayException && cause.getMessage().contains("non-empty schema"), cause.toString());
+    }
+
+    private Map<String, List<String>> indexColumns(String table) throws Exception {
+        Map<String, List<String>> indexes = new LinkedHashMap<>();
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            try (ResultSet rs = metaData.getIndexInfo(null, null, table, false, false)) {
+                while (rs.next()) {
+                    String name = rs.getString("INDEX_NAME");
+                    if (name != null) {
+                        indexes.computeIfAbsent(name.toLowerCase(), k -> new ArrayList<>())
+                                .add(rs.getString("COLUMN_NAME").toLowerCase());
+                    }
+                }
+            }
+        }
+        return indexes;
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.student.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.student.entity.Account;
+import org.example.student.entity.Student;
+import org.example.student.entity.StudentCourse;
+import org.example.student.support.TestData;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 加载 N 个学生（直接加载或经由选课记录）只执行一条语句，不会为每个学生再查询一次 account 表；
+ * 账号一侧仍可一次取出学生和专业
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class StudentAccountLazyLoadingTests {
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private LoginRepository loginRepository;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("LZ");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 40})
+    void loadingStudentsDoesNotQueryAccounts(int students) {
+        seed(students);
+        Statistics statistics = statistics();
+
+        List<Student> loaded = inTransaction(() -> studentRepository.findAll());
+
+        assertEquals(students, loaded.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(students, statistics.getEntityLoadCount());
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {5, 40})
+    void loadingSelectionsWithStudentsDoesNotQueryAccounts(int students) {
+        seed(students);
+        Statistics statistics = statistics();
+
+        // 只抓取学生、不抓取账户：原先的反向一对一会在这里逐行补查 account
+        List<StudentCourse> selections = inTransaction(() -> entityManager.createQuery(
+                "SELECT sc FROM StudentCourse sc JOIN FETCH sc.student", StudentCourse.class).getResultList());
+
+        assertEquals(students, selections.size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void accountStillLoadsItsStudent() {
+        seed(5);
+        Statistics statistics = statistics();
+
+        Account account = inTransaction(() -> loginRepository.findWithStudentByUsername("LZ1").orElseThrow());
+
+        assertEquals("LZ1", account.getStudent().getStudentId());
+        assertEquals("LZ", account.getStudent().getMajor().getMajorName());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    private void seed(int students) {
+        Long majorId = testData.major("LZ");
+        List<Long> studentIds = testData.students(majorId, students);
+        testData.accounts(majorId, "x");
+        testData.enroll(studentIds, List.of(testData.course("LZ-C1", 2.0, null)));
+    }
+
+    private <T> T inTransaction(Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template.execute(status -> work.get());
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
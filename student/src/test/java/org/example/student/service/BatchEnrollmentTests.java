@@ -0,0 +1,100 @@
+package org.example.student.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.student.dto.EnrollmentItemResult;
+import org.example.student.support.TestData;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 批量选课/退课：逐门返回结果，语句数不随课程数线性增长（名额条件更新除外）
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BatchEnrollmentTests {
+
+    private static final int COURSES = 8;
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private Long studentId;
+    private final List<Long> courseIds = new ArrayList<>();
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        Long majorId = testData.major("BE");
+        studentId = testData.students(majorId, 1).get(0);
+        for (int i = 1; i <= COURSES; i++) {
+            // 最后一门课程容量为 0，用于验证已满的课程只记为失败
+            courseIds.add(testData.course("BE-C" + i, 2.0, i == COURSES ? 0 : null));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("BE");
+    }
+
+    @Test
+    void selectCoursesReportsEachItemAndBatchesInserts() {
+        List<Long> request = new ArrayList<>(courseIds);
+        request.add(-1L);
+        studentCourseService.selectCourse(studentId, courseIds.get(0));
+
+        statistics.clear();
+        List<EnrollmentItemResult> results = studentCourseService.selectCourses(studentId, request);
+
+        assertEquals(COURSES + 1, results.size());
+        assertEquals("已选过该课程", results.get(0).getMessage());
+        assertEquals("课程名额已满", results.get(COURSES - 1).getMessage());
+        assertEquals("课程不存在", results.get(COURSES).getMessage());
+        assertEquals(COURSES - 2, results.stream().filter(EnrollmentItemResult::isSuccess).count());
+        assertEquals(COURSES - 1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_course WHERE student_id = ?", Integer.class, studentId));
+        // 校验 3 条 + 序列 1 条 + 每门课程的名额条件更新 + 总学分更新 1 条 + 批量插入 1 条
+        assertTrue(statistics.getPrepareStatementCount() <= 5 + COURSES,
+                "statements: " + statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void dropCoursesDeletesInOneStatement() {
+        studentCourseService.selectCourses(studentId, courseIds.subList(0, 3));
+
+        statistics.clear();
+        List<EnrollmentItemResult> results = studentCourseService.dropCourses(studentId, courseIds.subList(0, 4));
+
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(2).isSuccess());
+        assertFalse(results.get(3).isSuccess());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM student_course WHERE student_id = ?", Integer.class, studentId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT SUM(selected_count) FROM course WHERE course_code LIKE 'BE-C%'", Integer.class));
+        // 查询、删除、归还名额、扣减总学分各 1 条
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+}
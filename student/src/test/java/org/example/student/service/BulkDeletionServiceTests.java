@@ -0,0 +1,138 @@
+package org.example.student.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.student.support.TestData;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 删除专业、课程时按 EXISTS 检查关联数据；force=true 时分段批量删除学生、账号和选课记录，
+ * 语句数只与分段数有关，不加载任何实体，并同步归还名额、扣减学分
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+class BulkDeletionServiceTests {
+
+    private static final int STUDENTS = 10_000;
+    private static final int SELECTING_STUDENTS = 1_500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long majorId;
+    private Long otherStudentId;
+    private Long courseId;
+
+    @BeforeEach
+    void seed() {
+        majorId = testData.major("BD");
+        Long otherMajorId = testData.major("BK");
+        List<Long> studentIds = testData.students(majorId, STUDENTS);
+        otherStudentId = testData.students(otherMajorId, 1).get(0);
+        testData.accounts(majorId, "x");
+        testData.accounts(otherMajorId, "x");
+        courseId = testData.course("BD-C1", 2.0, null);
+        List<Long> selecting = new ArrayList<>(studentIds.subList(0, SELECTING_STUDENTS));
+        selecting.add(otherStudentId);
+        testData.enroll(selecting, List.of(courseId));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("BD", "BK");
+    }
+
+    @Test
+    void majorWithStudentsIsKeptWithoutForce() throws Exception {
+        Statistics statistics = statistics();
+        mockMvc.perform(delete("/major/" + majorId))
+                .andExpect(status().isBadRequest());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(STUDENTS, count("SELECT COUNT(*) FROM student WHERE major_id = ?", majorId));
+    }
+
+    @Test
+    void forcedMajorDeletionRunsInChunks() throws Exception {
+        Statistics statistics = statistics();
+        mockMvc.perform(delete("/major/" + majorId).param("force", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.students").value(STUDENTS))
+                .andExpect(jsonPath("$.data.accounts").value(STUDENTS))
+                .andExpect(jsonPath("$.data.selections").value(SELECTING_STUDENTS))
+                .andExpect(jsonPath("$.data.chunks").value(STUDENTS / BulkDeletionService.CHUNK_SIZE));
+
+        // 每段最多 5 条语句，另有存在性检查、计数、末尾的空段查询和删除专业本身
+        long statements = statistics.getPrepareStatementCount();
+        assertTrue(statements <= 5L * STUDENTS / BulkDeletionService.CHUNK_SIZE + 4, "语句数: " + statements);
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, count("SELECT COUNT(*) FROM major WHERE id = ?", majorId));
+        assertEquals(0, count("SELECT COUNT(*) FROM student WHERE student_id LIKE 'BD%'"));
+        assertEquals(0, count("SELECT COUNT(*) FROM account WHERE username LIKE 'BD%'"));
+        // 其他专业学生的选课、账号和名额保持不变
+        assertEquals(1, count("SELECT COUNT(*) FROM student_course WHERE course_id = ?", courseId));
+        assertEquals(1, count("SELECT selected_count FROM course WHERE id = ?", courseId));
+        assertEquals(1, count("SELECT COUNT(*) FROM account WHERE username = 'BK1'"));
+    }
+
+    @Test
+    void forcedCourseDeletionSubtractsCredits() throws Exception {
+        mockMvc.perform(delete("/course/" + courseId))
+                .andExpect(status().isBadRequest());
+
+        mockMvc.perform(delete("/course/" + courseId).param("force", "true"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.selections").value(SELECTING_STUDENTS + 1))
+                .andExpect(jsonPath("$.data.chunks").value(2));
+
+        assertEquals(0, count("SELECT COUNT(*) FROM course WHERE id = ?", courseId));
+        assertEquals(0, count("SELECT COUNT(*) FROM student_course"));
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT total_credits FROM student WHERE id = ?",
+                BigDecimal.class, otherStudentId).signum());
+    }
+
+    @Test
+    void missingMajorIsReported() throws Exception {
+        mockMvc.perform(delete("/major/-1").param("force", "true"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("专业不存在"));
+    }
+
+    private long count(String sql, Object... args) {
+        return jdbcTemplate.queryForObject(sql, Long.class, args);
+    }
+
+    private Statistics statistics() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        return statistics;
+    }
+}
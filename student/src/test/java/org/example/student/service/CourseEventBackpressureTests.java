@@ -0,0 +1,128 @@
+package org.example.student.service;
+
+import org.example.student.event.CourseChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 课程变化推送：写出卡住的客户端不影响其他订阅者，并在写出超时或积压过多后被断开
+ * （合并窗口设为很长，由测试手动触发推送）
+ */
+@SpringBootTest(properties = {
+        "enrollment.events.coalesce-ms=3600000",
+        "enrollment.events.write-timeout-ms=300",
+        "enrollment.events.max-pending=4",
+        "enrollment.events.sender-threads=2"})
+class CourseEventBackpressureTests {
+
+    @Autowired
+    private CourseEventService courseEventService;
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    void releaseBlockedWrites() {
+        release.countDown();
+    }
+
+    @Test
+    void stalledClientIsEvictedWithoutDelayingOthers() throws Exception {
+        BlockingEmitter slow = new BlockingEmitter();
+        RecordingEmitter fast = new RecordingEmitter();
+        int subscribers = courseEventService.getSubscriberCount();
+        long evicted = courseEventService.getEvictedCount();
+        courseEventService.register(slow);
+        courseEventService.register(fast);
+
+        // 慢客户端卡在 ready 事件上，另一个连接照常收到 ready 和之后的变化
+        await(() -> slow.sends == 1 && fast.names.contains("ready"));
+        courseEventService.onCourseChanged(CourseChangedEvent.catalog(-1L));
+        courseEventService.flush();
+        await(() -> fast.names.contains("catalog"));
+        assertEquals(subscribers + 2, courseEventService.getSubscriberCount());
+
+        Thread.sleep(400);
+        courseEventService.flush();
+        assertEquals(subscribers + 1, courseEventService.getSubscriberCount());
+        assertEquals(evicted + 1, courseEventService.getEvictedCount());
+
+        // 卡住的写出返回后由发送线程结束连接
+        release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void clientFallingBehindIsEvicted() throws Exception {
+        BlockingEmitter slow = new BlockingEmitter();
+        long evicted = courseEventService.getEvictedCount();
+        courseEventService.register(slow);
+        await(() -> slow.sends == 1);
+
+        // 每次推送 seats 和 catalog 两个事件，第三次推送时积压超过 4 条
+        for (int i = 0; i < 3; i++) {
+            courseEventService.onCourseChanged(CourseChangedEvent.catalog(-1L));
+            courseEventService.flush();
+        }
+        assertEquals(evicted + 1, courseEventService.getEvictedCount());
+
+        release.countDown();
+        assertTrue(slow.completed.await(5, TimeUnit.SECONDS));
+        // 断开后不再写出积压的事件
+        assertEquals(1, slow.sends);
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    // 网络很慢的客户端：写出一直阻塞到测试放行
+    private class BlockingEmitter extends SseEmitter {
+        private final CountDownLatch completed = new CountDownLatch(1);
+        private volatile int sends;
+
+        @Override
+        public void send(SseEventBuilder builder) throws IOException {
+            sends++;
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void complete() {
+            completed.countDown();
+        }
+    }
+
+    // 正常的客户端：记录收到的事件名
+    private static class RecordingEmitter extends SseEmitter {
+        private final List<String> names = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            builder.build().stream()
+                    .map(part -> part.getData().toString())
+                    .filter(text -> text.startsWith("event:"))
+                    .forEach(text -> names.add(text.substring("event:".length(), text.indexOf('\n'))));
+        }
+    }
+}
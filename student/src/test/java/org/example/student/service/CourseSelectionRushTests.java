@@ -0,0 +1,136 @@
+package org.example.student.service;
+
+import org.example.student.entity.Course;
+import org.example.student.repository.CourseRepository;
+import org.example.student.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 选课高峰压测：大量学生并发抢同一门限额课程，不能超卖，满员后的请求应被快速拒绝
+ */
+@SpringBootTest
+class CourseSelectionRushTests {
+
+    private static final int STUDENTS = 400;
+    private static final int CAPACITY = 30;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private CourseSeatService courseSeatService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private List<Long> studentIds;
+    private Long courseId;
+
+    @BeforeEach
+    void seed() {
+        studentIds = testData.students(testData.major("RS"), STUDENTS);
+        courseId = testData.course("RS-HOT", 2.0, CAPACITY);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("RS");
+    }
+
+    @Test
+    void concurrentSelectorsNeverOversellCapacity() throws Exception {
+        AtomicInteger selected = new AtomicInteger();
+        AtomicInteger rejectedAsFull = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            futures.add(pool.submit(() -> {
+                start.await();
+                try {
+                    if (studentCourseService.selectCourse(studentId, courseId)) {
+                        selected.incrementAndGet();
+                    }
+                } catch (IllegalStateException e) {
+                    rejectedAsFull.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        long elapsedNanos = System.nanoTime() - begin;
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_course WHERE course_id = ?", Integer.class, courseId);
+        Integer selectedCount = jdbcTemplate.queryForObject("SELECT selected_count FROM course WHERE id = ?", Integer.class, courseId);
+        double throughput = STUDENTS / (elapsedNanos / 1_000_000_000.0);
+
+        assertEquals(CAPACITY, selected.get(), "吞吐量 " + (long) throughput + " 次/秒");
+        assertEquals(STUDENTS - CAPACITY, rejectedAsFull.get());
+        assertEquals(CAPACITY, rows);
+        assertEquals(CAPACITY, selectedCount);
+
+        // 退课归还名额后，其他学生可以补选
+        Long dropped = jdbcTemplate.queryForObject("SELECT MIN(student_id) FROM student_course WHERE course_id = ?", Long.class, courseId);
+        assertTrue(studentCourseService.dropCourse(dropped, courseId));
+        Long waiting = studentIds.stream()
+                .filter(id -> jdbcTemplate.queryForObject("SELECT COUNT(*) FROM student_course WHERE student_id = ?", Integer.class, id) == 0)
+                .filter(id -> !id.equals(dropped))
+                .findFirst().orElseThrow();
+        assertTrue(studentCourseService.selectCourse(waiting, courseId));
+        assertEquals(CAPACITY, jdbcTemplate.queryForObject("SELECT selected_count FROM course WHERE id = ?", Integer.class, courseId));
+    }
+
+    @Test
+    void rollbackAfterReloadDoesNotAddASeat() {
+        Long single = testData.course("RS-ONE", 2.0, 1);
+        Course course = courseRepository.findById(single).orElseThrow();
+
+        // 事务内预占后计数被丢弃并重新加载，新计数不含这次预占，回滚时不应再归还
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            assertTrue(courseSeatService.tryAcquire(single));
+            courseSeatService.invalidate(single);
+            courseSeatService.warmUp(List.of(course));
+            status.setRollbackOnly();
+        });
+
+        assertTrue(courseSeatService.tryAcquire(single));
+        assertFalse(courseSeatService.tryAcquire(single));
+        courseSeatService.invalidate(single);
+    }
+}
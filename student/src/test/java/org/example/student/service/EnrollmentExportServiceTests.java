@@ -0,0 +1,87 @@
+package org.example.student.service;
+
+import org.example.student.dto.StudentCourseDTO;
+import org.example.student.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class EnrollmentExportServiceTests {
+
+    private static final int STUDENTS = 260;
+    private static final int COURSES = 5;
+
+    @Autowired
+    private EnrollmentExportService enrollmentExportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @BeforeEach
+    void seed() {
+        Long majorId = testData.major("EX");
+        List<Long> studentIds = testData.students(majorId, STUDENTS);
+        // 姓名带逗号，验证 CSV 字段加引号
+        jdbcTemplate.update("UPDATE student SET name = CONCAT('学生,', sequence_number) WHERE major_id = ?", majorId);
+        List<Long> courseIds = new ArrayList<>();
+        for (int i = 1; i <= COURSES; i++) {
+            courseIds.add(testData.course("EX-C" + i, 1.5, null));
+        }
+        testData.enroll(studentIds, courseIds);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("EX");
+    }
+
+    @Test
+    void cursorPagesCoverEveryRowExactlyOnce() {
+        Set<Long> seen = new HashSet<>();
+        long cursor = 0;
+        List<StudentCourseDTO> page;
+        do {
+            page = enrollmentExportService.getPageAfter(cursor, 97);
+            for (StudentCourseDTO dto : page) {
+                assertTrue(dto.getId() > cursor);
+                assertTrue(seen.add(dto.getId()));
+            }
+            if (!page.isEmpty()) {
+                cursor = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == 97);
+        assertEquals(STUDENTS * COURSES, seen.size());
+    }
+
+    @Test
+    void exportsOneLinePerEnrollment() throws Exception {
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        enrollmentExportService.export(EnrollmentExportService.Format.NDJSON, ndjson);
+        String[] jsonLines = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(STUDENTS * COURSES, jsonLines.length);
+        assertTrue(jsonLines[0].startsWith("{\"id\":"));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        enrollmentExportService.export(EnrollmentExportService.Format.CSV, csv);
+        String[] csvLines = csv.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(STUDENTS * COURSES + 1, csvLines.length);
+        assertTrue(csvLines[1].contains(",\"学生,1\","), csvLines[1]);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.student.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.student.dto.DailyEnrollmentDTO;
+import org.example.student.dto.EnrollmentCountDTO;
+import org.example.student.dto.EnrollmentTotalsDTO;
+import org.example.student.support.TestData;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class EnrollmentStatisticsServiceTests {
+
+    @Autowired
+    private EnrollmentStatisticsService enrollmentStatisticsService;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void seed() {
+        Long major1 = testData.major("ST1");
+        Long major2 = testData.major("ST2");
+        List<Long> major1Students = testData.students(major1, 2);
+        Long major2Student = testData.students(major2, 1).get(0);
+        Long courseA = testData.course("ST-A", 3.0, null);
+        Long courseB = testData.course("ST-B", 2.0, null);
+        testData.enroll(major1Students.subList(0, 1), List.of(courseA), LocalDateTime.now().minusDays(1));
+        testData.enroll(major1Students.subList(0, 1), List.of(courseB));
+        testData.enroll(List.of(major1Students.get(1), major2Student), List.of(courseA));
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("ST");
+    }
+
+    @Test
+    void aggregatesWithoutLoadingEntities() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        EnrollmentTotalsDTO totals = enrollmentStatisticsService.getTotals();
+        assertEquals(4, totals.getTotalEnrollments());
+        assertEquals(3, totals.getUniqueStudents());
+        assertEquals(2, totals.getUniqueCourses());
+
+        List<EnrollmentCountDTO> byCourse = enrollmentStatisticsService.getCountsByCourse();
+        assertEquals("ST-A", byCourse.get(0).getName());
+        assertEquals(3, byCourse.get(0).getEnrollments());
+        assertEquals(1, byCourse.get(1).getEnrollments());
+
+        List<EnrollmentCountDTO> byMajor = enrollmentStatisticsService.getCountsByMajor();
+        assertEquals("ST1", byMajor.get(0).getName());
+        assertEquals(3, byMajor.get(0).getEnrollments());
+        assertEquals(2, byMajor.get(0).getStudents());
+
+        List<DailyEnrollmentDTO> daily = enrollmentStatisticsService.getDailyCounts(7);
+        assertEquals(2, daily.size());
+        assertEquals(LocalDate.now().minusDays(1), daily.get(0).getDate());
+        assertEquals(1, daily.get(0).getEnrollments());
+        assertEquals(3, daily.get(1).getEnrollments());
+
+        assertEquals(0, statistics.getEntityLoadCount(), "统计查询不应加载任何实体");
+        assertEquals(4, statistics.getPrepareStatementCount());
+    }
+}
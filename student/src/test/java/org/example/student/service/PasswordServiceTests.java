@@ -0,0 +1,75 @@
+package org.example.student.service;
+
+import org.example.student.entity.Account;
+import org.example.student.repository.LoginRepository;
+import org.example.student.util.PasswordEncoder;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "password.hash.iterations=1000")
+class PasswordServiceTests {
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private LoginRepository loginRepository;
+
+    @AfterEach
+    void cleanUp() {
+        loginRepository.findByUsername("pw-legacy").ifPresent(loginRepository::delete);
+        loginRepository.findByUsername("pw-plain").ifPresent(loginRepository::delete);
+    }
+
+    @Test
+    void encodesWithSaltAndConfiguredCost() {
+        String first = passwordService.encode("Abc12345!");
+        String second = passwordService.encode("Abc12345!");
+        assertTrue(first.startsWith("pbkdf2$1000$"));
+        assertNotEquals(first, second);
+        assertTrue(passwordService.matches("Abc12345!", first));
+        assertFalse(passwordService.matches("abc12345!", first));
+        assertFalse(passwordService.needsRehash(first));
+        assertTrue(passwordService.needsRehash("pbkdf2$500$" + first.substring("pbkdf2$1000$".length())));
+    }
+
+    @Test
+    void legacyPasswordsAreUpgradedOnSuccessfulLogin() {
+        Account md5 = legacyAccount("pw-legacy", PasswordEncoder.encode("123456"));
+        Account plain = legacyAccount("pw-plain", "123456");
+
+        assertFalse(accountService.verifyPassword(md5, "654321"));
+        assertEquals(PasswordEncoder.encode("123456"), reload("pw-legacy").getPassword());
+
+        assertTrue(accountService.verifyPassword(md5, "123456"));
+        assertTrue(accountService.verifyPassword(plain, "123456"));
+        for (String username : new String[]{"pw-legacy", "pw-plain"}) {
+            String stored = reload(username).getPassword();
+            assertTrue(stored.startsWith("pbkdf2$1000$"), stored);
+            assertTrue(accountService.verifyPassword(reload(username), "123456"));
+        }
+    }
+
+    private Account legacyAccount(String username, String password) {
+        Account account = new Account();
+        account.setUsername(username);
+        account.setPassword(password);
+        account.setRole(Account.Role.ADMIN);
+        account.setFirstLogin(false);
+        return loginRepository.save(account);
+    }
+
+    private Account reload(String username) {
+        return loginRepository.findByUsername(username).orElseThrow();
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.student.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 查询类服务方法（get/find/exists/has 开头且有返回值）统一使用只读事务：
+ * FlushMode.MANUAL、会话默认只读（不保留脏检查快照）、JDBC 连接只读
+ */
+class ReadOnlyTransactionTests {
+
+    private static final List<Class<?>> DATA_SERVICES = List.of(AccountService.class, CourseService.class,
+            StudentCourseService.class, StudentService.class, EnrollmentStatisticsService.class,
+            CourseSeatService.class, EnrollmentExportService.class);
+
+    // 不访问数据库或自行处理缓存的方法：课程目录命中缓存时不应占用连接
+    private static final Set<String> EXEMPT = Set.of("CourseService.getCatalog", "CourseService.getCatalogStatistics");
+
+    @Test
+    void queryMethodsUseReadOnlyTransactions() {
+        List<String> violations = new ArrayList<>();
+        for (Class<?> service : DATA_SERVICES) {
+            for (Method method : service.getDeclaredMethods()) {
+                String name = service.getSimpleName() + "." + method.getName();
+                if (!Modifier.isPublic(method.getModifiers()) || method.getReturnType() == void.class
+                        || !method.getName().matches("(get|find|exists|has).*") || EXEMPT.contains(name)) {
+                    continue;
+                }
+                Transactional transactional = AnnotatedElementUtils.findMergedAnnotation(method, Transactional.class);
+                if (transactional == null || !transactional.readOnly()) {
+                    violations.add(name);
+                }
+            }
+        }
+        assertEquals(List.of(), violations);
+    }
+}
@@ -0,0 +1,120 @@
+package org.example.student.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.student.dto.EnrollmentItemResult;
+import org.example.student.entity.Course;
+import org.example.student.support.TestData;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 预先维护的总学分：随选课、退课和课程学分变更同步更新，学分上限由条件更新保证，对账可修正偏差
+ */
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "enrollment.max-credits=5"
+})
+class StudentCreditsTests {
+
+    @Autowired
+    private StudentCourseService studentCourseService;
+
+    @Autowired
+    private CourseService courseService;
+
+    @Autowired
+    private CreditReconciliationService creditReconciliationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long studentId;
+    private List<Long> courseIds;
+
+    @BeforeEach
+    void seed() {
+        Long majorId = testData.major("TC");
+        studentId = testData.students(majorId, 1).get(0);
+        courseIds = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            courseIds.add(testData.course("TC-C" + i, 2.0, null));
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("TC");
+    }
+
+    @Test
+    void selectAndDropKeepTotalInSync() {
+        assertTrue(studentCourseService.selectCourse(studentId, courseIds.get(0)));
+        assertTrue(studentCourseService.selectCourse(studentId, courseIds.get(1)));
+        assertTrue(studentCourseService.dropCourse(studentId, courseIds.get(0)));
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertEquals(2.0, studentCourseService.getTotalCreditsByStudentId(studentId).doubleValue());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void maxCreditsIsEnforced() {
+        assertTrue(studentCourseService.selectCourse(studentId, courseIds.get(0)));
+        assertTrue(studentCourseService.selectCourse(studentId, courseIds.get(1)));
+        assertThrows(IllegalStateException.class, () -> studentCourseService.selectCourse(studentId, courseIds.get(2)));
+
+        studentCourseService.dropCourses(studentId, courseIds.subList(0, 2));
+        List<EnrollmentItemResult> results = studentCourseService.selectCourses(studentId, courseIds);
+        assertTrue(results.get(0).isSuccess());
+        assertTrue(results.get(1).isSuccess());
+        assertFalse(results.get(2).isSuccess());
+        assertEquals("超出学分上限", results.get(2).getMessage());
+        assertEquals(4.0, studentCourseService.getTotalCreditsByStudentId(studentId).doubleValue());
+        // 被拒的课程不占名额
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT selected_count FROM course WHERE id = ?",
+                Integer.class, courseIds.get(2)));
+    }
+
+    @Test
+    void courseCreditChangeAdjustsSelectedStudents() {
+        studentCourseService.selectCourse(studentId, courseIds.get(0));
+
+        Course course = courseService.getCourseById(courseIds.get(0)).orElseThrow();
+        course.setCredits(new BigDecimal("3.5"));
+        courseService.saveCourse(course);
+
+        assertEquals(3.5, studentCourseService.getTotalCreditsByStudentId(studentId).doubleValue());
+    }
+
+    @Test
+    void reconciliationRepairsDrift() {
+        studentCourseService.selectCourse(studentId, courseIds.get(0));
+        jdbcTemplate.update("UPDATE student SET total_credits = 9 WHERE id = ?", studentId);
+
+        assertEquals(1, creditReconciliationService.reconcile());
+        assertEquals(2.0, studentCourseService.getTotalCreditsByStudentId(studentId).doubleValue());
+        assertEquals(0, creditReconciliationService.reconcile());
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.student.service;
+
+import org.example.student.dto.StudentImportEvent;
+import org.example.student.entity.Account;
+import org.example.student.support.TestData;
+import org.example.student.util.JwtUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 批量导入学生：逐行报告失败原因，成功的行批量写入学生和账户；
+ * /user/student/import 以 NDJSON 流式返回这些事件，仅管理员可用
+ */
+@SpringBootTest(properties = "password.hash.iterations=1000")
+@AutoConfigureMockMvc
+class StudentImportServiceTests {
+
+    private static final int ROWS = 2500;
+
+    @Autowired
+    private StudentImportService studentImportService;
+
+    @Autowired
+    private PasswordService passwordService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private Long majorId;
+
+    @BeforeEach
+    void seed() {
+        majorId = testData.major("IM");
+        // 已有学生占用了 2025 级的第一个序号和导入文件第一行的手机号
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO student (student_id, name, age, phone, enrollment_date, sequence_number, " +
+                        "major_id, created_time, updated_time) VALUES ('IM2025001', '已有学生', 18, '13700000001', ?, 1, ?, ?, ?)",
+                java.sql.Date.valueOf(LocalDate.of(2025, 9, 1)), majorId, now, now);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("IM");
+    }
+
+    @Test
+    void csvImportReportsRowErrorsAndInsertsTheRest() throws Exception {
+        StringBuilder csv = new StringBuilder("\uFEFFname,age,phone,enrollmentDate,majorCode\n");
+        for (int i = 1; i <= ROWS; i++) {
+            csv.append("\"学生,").append(i).append("\",18,137").append(String.format("%08d", i)).append(",2025-09-01,im\n");
+        }
+        csv.append("坏年龄,abc,13799999991,2025-09-01,IM\n");
+        csv.append("\n");
+        csv.append("重复手机号,18,13700000002,2025-09-01,IM\n");
+        csv.append("未知专业,18,13799999992,2025-09-01,XX\n");
+
+        List<StudentImportEvent> events = new ArrayList<>();
+        StudentImportEvent summary = studentImportService.importStudents(StudentImportService.Format.CSV,
+                new ByteArrayInputStream(csv.toString().getBytes(StandardCharsets.UTF_8)), events::add);
+
+        assertEquals("done", summary.getType());
+        assertEquals(ROWS + 3, summary.getProcessed());
+        assertEquals(ROWS - 1, summary.getImported());
+        assertEquals(4, summary.getFailed());
+        Map<Long, String> errors = events.stream().filter(e -> "error".equals(e.getType()))
+                .collect(Collectors.toMap(StudentImportEvent::getLine, StudentImportEvent::getMessage));
+        assertEquals("手机号已被使用", errors.get(2L));
+        assertEquals("年龄格式不正确", errors.get((long) ROWS + 2));
+        assertEquals("手机号在导入文件中重复", errors.get((long) ROWS + 4));
+        assertEquals("专业不存在", errors.get((long) ROWS + 5));
+        assertEquals(3, events.stream().filter(e -> "progress".equals(e.getType())).count());
+
+        // 序号接在已有学生之后，姓名中的逗号按引号字段保留
+        assertEquals("学生,2", jdbcTemplate.queryForObject(
+                "SELECT name FROM student WHERE student_id = 'IM2025002'", String.class));
+        assertEquals(ROWS, jdbcTemplate.queryForObject(
+                "SELECT MAX(sequence_number) FROM student WHERE major_id = ?", Integer.class, majorId));
+        String password = jdbcTemplate.queryForObject(
+                "SELECT a.password FROM account a JOIN student s ON a.student_id = s.id WHERE s.student_id = 'IM2025002'",
+                String.class);
+        assertTrue(passwordService.matches("123456", password));
+        // 每个账户的初始密码各自加盐
+        assertEquals(ROWS - 1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(DISTINCT a.password) FROM account a JOIN student s ON a.student_id = s.id WHERE s.major_id = ?",
+                Integer.class, majorId));
+    }
+
+    @Test
+    void ndjsonImportReportsMalformedLines() throws Exception {
+        String ndjson = "{\"name\":\"甲\",\"age\":19,\"phone\":\"13711111111\",\"enrollmentDate\":\"2025-09-01\",\"majorId\":" + majorId + "}\n"
+                + "{not json\n"
+                + "{\"name\":\"乙\",\"age\":19,\"phone\":\"13711111112\",\"enrollmentDate\":\"2025/09/01\",\"majorId\":" + majorId + "}\n";
+
+        List<StudentImportEvent> events = new ArrayList<>();
+        StudentImportEvent summary = studentImportService.importStudents(StudentImportService.Format.NDJSON,
+                new ByteArrayInputStream(ndjson.getBytes(StandardCharsets.UTF_8)), events::add);
+
+        assertEquals(1, summary.getImported());
+        assertEquals(2, summary.getFailed());
+        assertEquals("JSON 格式不正确", events.get(0).getMessage());
+        assertEquals("入学日期格式不正确", events.get(1).getMessage());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM account WHERE username = 'IM2025002'", Integer.class));
+    }
+
+    @Test
+    void importEndpointStreamsEventsForAdminsOnly() throws Exception {
+        String ndjson = "{\"name\":\"甲\",\"age\":19,\"phone\":\"13711111111\",\"enrollmentDate\":\"2025-09-01\",\"majorId\":" + majorId + "}\n"
+                + "{not json\n";
+
+        mockMvc.perform(post("/user/student/import").param("format", "ndjson")
+                        .header("Authorization", "Bearer " + token(Account.Role.STUDENT))
+                        .content(ndjson))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isForbidden())
+                .andExpect(jsonPath("$.code").value(403));
+        mockMvc.perform(post("/user/student/import").param("format", "xml")
+                        .header("Authorization", "Bearer " + token(Account.Role.ADMIN))
+                        .content(ndjson))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("不支持的导入格式: xml"));
+        // 表头错误在开始输出导入结果之前就以 400 返回
+        mockMvc.perform(post("/user/student/import").param("format", "csv")
+                        .header("Authorization", "Bearer " + token(Account.Role.ADMIN))
+                        .content("name,age,phone\n甲,19,13711111111\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("批量导入失败: CSV 表头缺少列: enrollmentdate"));
+
+        MvcResult result = mockMvc.perform(post("/user/student/import").param("format", "ndjson")
+                        .header("Authorization", "Bearer " + token(Account.Role.ADMIN))
+                        .content(ndjson))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = body.split("\n");
+        assertEquals("{\"type\":\"error\",\"line\":2,\"message\":\"JSON 格式不正确\"}", lines[0]);
+        assertTrue(lines[lines.length - 1].startsWith("{\"type\":\"done\",\"processed\":2,\"imported\":1,\"failed\":1"),
+                lines[lines.length - 1]);
+    }
+
+    private static String token(Account.Role role) {
+        Account account = new Account();
+        account.setUsername("importer");
+        account.setRole(role);
+        return JwtUtil.generateToken(account);
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.student.service;
+
+import org.example.student.dto.StudentRegisterRequest;
+import org.example.student.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 并发批量注册：同一专业和年份下多线程同时注册，学号不能冲突，也不需要重试
+ */
+@SpringBootTest(properties = "password.hash.iterations=1000")
+class StudentRegistrationStressTests {
+
+    private static final int STUDENTS = 300;
+    private static final int THREADS = 16;
+    private static final int EXISTING_SEQUENCE = 5;
+
+    @Autowired
+    private StudentService studentService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private Long majorId;
+
+    @BeforeEach
+    void seed() {
+        majorId = testData.major("RG");
+        // 计数器表建立之前已经存在的学生，新学号应接在其序号之后
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.update("INSERT INTO student (student_id, name, age, phone, enrollment_date, sequence_number, " +
+                        "major_id, created_time, updated_time) VALUES ('RG2024005', '老生', 18, '13600000000', ?, ?, ?, ?, ?)",
+                java.sql.Date.valueOf(LocalDate.of(2024, 9, 1)), EXISTING_SEQUENCE, majorId, now, now);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        testData.cleanUp("RG");
+    }
+
+    @Test
+    void concurrentRegistrationsGetUniqueContiguousIds() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        List<Future<String>> futures = new ArrayList<>();
+        for (int i = 1; i <= STUDENTS; i++) {
+            StudentRegisterRequest request = new StudentRegisterRequest();
+            request.setName("新生" + i);
+            request.setAge(18);
+            request.setPhone("136" + String.format("%08d", i));
+            request.setEnrollmentDate(LocalDate.of(2024, 9, 1));
+            request.setMajorId(majorId);
+            futures.add(pool.submit(() -> {
+                start.await();
+                return studentService.registerStudent(request).getStudentId();
+            }));
+        }
+        start.countDown();
+
+        Set<String> studentIds = new HashSet<>();
+        for (Future<String> future : futures) {
+            studentIds.add(future.get(60, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+
+        assertEquals(STUDENTS, studentIds.size());
+        List<Integer> sequences = jdbcTemplate.queryForList(
+                "SELECT sequence_number FROM student WHERE major_id = ? ORDER BY sequence_number", Integer.class, majorId);
+        for (int i = 0; i < sequences.size(); i++) {
+            assertEquals(EXISTING_SEQUENCE + i, sequences.get(i));
+        }
+        assertTrue(studentIds.contains("RG2024006"));
+        assertEquals(EXISTING_SEQUENCE + STUDENTS + 1, jdbcTemplate.queryForObject(
+                "SELECT next_value FROM student_id_counter WHERE major_id = ? AND enrollment_year = 2024", Integer.class, majorId));
+    }
+}
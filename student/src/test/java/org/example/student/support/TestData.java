@@ -0,0 +1,136 @@
+package org.example.student.support;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 测试数据：用 JdbcTemplate 直接插入专业、学生、账号、课程和选课记录（不经过服务层，也不计入 Hibernate 统计），
+ * 测试结束后按代码前缀清理。
+ *
+ * 专业和课程的名称与代码相同；学生学号为“专业代码 + 序号”，手机号在整个测试进程内不重复。
+ * 选课记录同时累加课程的已选人数和学生的总学分，与选课服务写入的数据一致。
+ */
+@Component
+public class TestData {
+
+    private static final AtomicLong PHONES = new AtomicLong();
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    public Long major(String code) {
+        Timestamp now = now();
+        jdbcTemplate.update("INSERT INTO major (major_code, major_name, created_time, updated_time) VALUES (?, ?, ?, ?)",
+                code, code, now, now);
+        return jdbcTemplate.queryForObject("SELECT id FROM major WHERE major_code = ?", Long.class, code);
+    }
+
+    /**
+     * 在专业下新建 count 名学生，序号接在该专业已有学生之后
+     *
+     * @return 新学生的主键，按序号排列
+     */
+    public List<Long> students(Long majorId, int count) {
+        String code = jdbcTemplate.queryForObject("SELECT major_code FROM major WHERE id = ?", String.class, majorId);
+        int last = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(sequence_number), 0) FROM student WHERE major_id = ?",
+                Integer.class, majorId);
+        long phone = PHONES.getAndAdd(count);
+        Timestamp now = now();
+        jdbcTemplate.update("INSERT INTO student (student_id, name, age, phone, enrollment_date, sequence_number, major_id, " +
+                        "created_time, updated_time) SELECT CONCAT(?, ? + X), CONCAT('学生', ? + X), 18, " +
+                        "CONCAT('199', LPAD(? + X, 8, '0')), DATE '2024-09-01', ? + X, ?, ?, ? FROM SYSTEM_RANGE(1, ?)",
+                code, last, last, phone, last, majorId, now, now, count);
+        return jdbcTemplate.queryForList("SELECT id FROM student WHERE major_id = ? AND sequence_number > ? ORDER BY sequence_number",
+                Long.class, majorId, last);
+    }
+
+    /**
+     * 为专业下还没有账号的学生各建一个学生账号，用户名为学号
+     *
+     * @return 新建的账号数
+     */
+    public int accounts(Long majorId, String password) {
+        Timestamp now = now();
+        return jdbcTemplate.update("INSERT INTO account (username, password, role, first_login, student_id, created_time, updated_time) " +
+                "SELECT s.student_id, ?, 'STUDENT', FALSE, s.id, ?, ? FROM student s WHERE s.major_id = ? " +
+                "AND NOT EXISTS (SELECT 1 FROM account a WHERE a.student_id = s.id)", password, now, now, majorId);
+    }
+
+    // capacity 为 null 表示不限人数
+    public Long course(String code, double credits, Integer capacity) {
+        Timestamp now = now();
+        jdbcTemplate.update("INSERT INTO course (course_code, course_name, credits, capacity, created_time, updated_time) " +
+                "VALUES (?, ?, ?, ?, ?, ?)", code, code, BigDecimal.valueOf(credits), capacity, now, now);
+        return jdbcTemplate.queryForObject("SELECT id FROM course WHERE course_code = ?", Long.class, code);
+    }
+
+    /**
+     * 每名学生选上每门课程
+     *
+     * @return 插入的选课记录数
+     */
+    public int enroll(Collection<Long> studentIds, Collection<Long> courseIds) {
+        return enroll(studentIds, courseIds, LocalDateTime.now());
+    }
+
+    public int enroll(Collection<Long> studentIds, Collection<Long> courseIds, LocalDateTime selectedTime) {
+        Timestamp time = Timestamp.valueOf(selectedTime);
+        List<Object[]> rows = new ArrayList<>();
+        for (Long courseId : courseIds) {
+            for (Long studentId : studentIds) {
+                rows.add(new Object[]{studentId, courseId, time});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO student_course (id, student_id, course_id, selected_time) " +
+                "VALUES (NEXT VALUE FOR student_course_seq, ?, ?, ?)", rows);
+
+        BigDecimal credits = BigDecimal.ZERO;
+        List<Object[]> courses = new ArrayList<>();
+        for (Long courseId : courseIds) {
+            credits = credits.add(jdbcTemplate.queryForObject("SELECT credits FROM course WHERE id = ?", BigDecimal.class, courseId));
+            courses.add(new Object[]{studentIds.size(), courseId});
+        }
+        jdbcTemplate.batchUpdate("UPDATE course SET selected_count = selected_count + ? WHERE id = ?", courses);
+        List<Object[]> students = new ArrayList<>();
+        for (Long studentId : studentIds) {
+            students.add(new Object[]{credits, studentId});
+        }
+        jdbcTemplate.batchUpdate("UPDATE student SET total_credits = COALESCE(total_credits, 0) + ? WHERE id = ?", students);
+        return rows.size();
+    }
+
+    /**
+     * 删除代码以任一前缀开头的专业（连同其下的学生、账号、学号计数器）和课程，以及这些学生、课程的选课记录；
+     * 用户名以前缀开头的账号（包括管理员账号）一并删除
+     */
+    public void cleanUp(String... prefixes) {
+        for (String prefix : prefixes) {
+            String pattern = prefix + "%";
+            String students = "SELECT id FROM student WHERE student_id LIKE ? " +
+                    "OR major_id IN (SELECT id FROM major WHERE major_code LIKE ?)";
+            jdbcTemplate.update("DELETE FROM student_course WHERE student_id IN (" + students + ") " +
+                    "OR course_id IN (SELECT id FROM course WHERE course_code LIKE ?)", pattern, pattern, pattern);
+            jdbcTemplate.update("DELETE FROM account WHERE username LIKE ? OR student_id IN (" + students + ")",
+                    pattern, pattern, pattern);
+            jdbcTemplate.update("DELETE FROM student WHERE student_id LIKE ? " +
+                    "OR major_id IN (SELECT id FROM major WHERE major_code LIKE ?)", pattern, pattern);
+            jdbcTemplate.update("DELETE FROM student_id_counter WHERE major_id IN (SELECT id FROM major WHERE major_code LIKE ?)",
+                    pattern);
+            jdbcTemplate.update("DELETE FROM course WHERE course_code LIKE ?", pattern);
+            jdbcTemplate.update("DELETE FROM major WHERE major_code LIKE ?", pattern);
+        }
+    }
+
+    private static Timestamp now() {
+        return Timestamp.valueOf(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.student.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 单次遍历的复杂度校验与原先四次正则匹配的结果一致
+ */
+class PasswordPolicyTests {
+
+    @Test
+    void matchesLegacyRegexRules() {
+        List<String> passwords = List.of("Abc12345!", "Abc1234!", "abcdefgh1", "12345678!", "abcdefgh!",
+                "Abcdefgh12345", "correct-horse-battery-2024", "密码密码密码a1!", "Ａbc12345!", "abc 1234~",
+                "a1[]{}\\|/?", "A1`~~~~~~~");
+        for (String password : passwords) {
+            assertEquals(legacy(password), PasswordPolicy.isValid(password), password);
+        }
+        assertFalse(PasswordPolicy.isValid(null));
+    }
+
+    private static boolean legacy(String password) {
+        return password.length() > 7
+                && password.matches(".*\\d.*")
+                && password.matches(".*[a-zA-Z].*")
+                && password.matches(".*[!@#$%^&*()_+\\-=\\[\\]{};':\"\\\\|,.<>\\/?].*");
+    }
+}